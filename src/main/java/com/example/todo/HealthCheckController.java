@@ -20,8 +20,8 @@ public class HealthCheckController {
 
     @GetMapping("/") // / 이런 요청 없어서 걍 임의로 쓴 것임.
     public ResponseEntity<?> healthCheck() {
-        log.info("server is runnign... I'm Healthy!");
-        log.info("Hello World");
+        // 로드 밸런서가 몇 초마다 호출하므로 INFO 로그를 남기지 않음
+        log.debug("server is runnign... I'm Healthy!");
         return ResponseEntity.ok().body("It's OK~!!");
     }
 
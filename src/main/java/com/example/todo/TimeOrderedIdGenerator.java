@@ -0,0 +1,95 @@
+package com.example.todo;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.Configurable;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.security.SecureRandom;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * 시간 순서대로 정렬되는 id 생성기 (UUID version 7 형식)
+ *
+ * - 앞 48비트가 밀리초 단위 생성 시각이라 나중에 만든 id일수록 값이 크다.
+ *   -> InnoDB 클러스터드 인덱스의 끝에 순서대로 추가되므로 페이지 분할이 줄어든다.
+ * - 기존 "uuid" 전략과 똑같이 32자리 16진수 문자열로 저장되기 때문에
+ *   기존 데이터, URL(DELETE /api/todos/{id}), 컬럼 타입을 그대로 사용할 수 있다.
+ *
+ * hibernate.id.time_ordered=false 로 설정하면 기존처럼 무작위 id를 생성한다.
+ * (spring.jpa.properties.hibernate.id.time_ordered=false)
+ */
+public class TimeOrderedIdGenerator implements IdentifierGenerator, Configurable {
+
+    public static final String TIME_ORDERED_SETTING = "hibernate.id.time_ordered";
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    // 같은 밀리초 안에서 생성된 id의 순서를 보장하기 위한 상태 (모든 엔터티가 공유)
+    private static long lastMillis = -1;
+    private static int sequence;
+
+    private boolean timeOrdered = true;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        ConfigurationService configurationService = serviceRegistry.getService(ConfigurationService.class);
+        this.timeOrdered = ConfigurationHelper.getBoolean(
+                TIME_ORDERED_SETTING, configurationService.getSettings(), true);
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) {
+        if (!timeOrdered) {
+            return UUID.randomUUID().toString().replace("-", "");
+        }
+        return nextId();
+    }
+
+    /**
+     * 시간 순서 id 생성
+     * 구성: [시각 48비트][버전 4비트(7)][순번 12비트][variant 2비트][난수 62비트]
+     * @return - 32자리 16진수 문자열
+     */
+    public static String nextId() {
+        long millis;
+        int seq;
+        synchronized (TimeOrderedIdGenerator.class) {
+            long now = System.currentTimeMillis();
+            if (now > lastMillis) {
+                lastMillis = now;
+                // 순번이 넘치지 않도록 12비트 중 하위 절반 안에서 시작
+                sequence = RANDOM.nextInt(1 << 11);
+            } else if (++sequence > 0xFFF) {
+                // 같은 밀리초 안에서 4096개를 넘으면 다음 밀리초 값을 미리 사용
+                lastMillis++;
+                sequence = 0;
+            }
+            millis = lastMillis;
+            seq = sequence;
+        }
+
+        long msb = (millis << 16) | 0x7000L | seq;
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+
+        char[] out = new char[32];
+        writeHex(msb, out, 0);
+        writeHex(lsb, out, 16);
+        return new String(out);
+    }
+
+    private static void writeHex(long value, char[] out, int offset) {
+        for (int i = 15; i >= 0; i--) {
+            out[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.example.todo.admin;
+
+import com.example.todo.datasource.ShardDirectory;
+import com.example.todo.todoapi.service.TodoResharder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+// 할 일 샤드 확인 및 회원 이동을 위한 관리자 전용 컨트롤러
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/shards")
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+public class ShardController {
+
+    private final ShardDirectory shardDirectory;
+    private final TodoResharder todoResharder;
+
+    // 샤드 수와 배정표에 기록된 회원 수
+    @GetMapping
+    public ResponseEntity<?> shards() {
+        log.info("/api/admin/shards GET!");
+        return ResponseEntity.ok().body(Map.of(
+                "shardCount", shardDirectory.shardCount(),
+                "assigned", shardDirectory.assignedCount()));
+    }
+
+    // 회원의 할 일이 있는 샤드
+    @GetMapping("/users/{userId}")
+    public ResponseEntity<?> shardOf(@PathVariable String userId) {
+        log.info("/api/admin/shards/users/{} GET!", userId);
+        return ResponseEntity.ok().body(Map.of(
+                "userId", userId,
+                "shard", shardDirectory.shardOf(userId)));
+    }
+
+    // 회원의 할 일을 다른 샤드로 옮김 (예: /api/admin/shards/users/{userId}/move?target=1)
+    @PostMapping("/users/{userId}/move")
+    public ResponseEntity<?> move(
+            @PathVariable String userId,
+            @RequestParam int target
+    ) {
+        log.info("/api/admin/shards/users/{}/move POST! - target: {}", userId, target);
+
+        try {
+            int copied = todoResharder.move(userId, target);
+            return ResponseEntity.ok().body(Map.of(
+                    "userId", userId,
+                    "shard", shardDirectory.shardOf(userId),
+                    "copied", copied));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+}
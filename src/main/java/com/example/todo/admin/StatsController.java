@@ -0,0 +1,111 @@
+package com.example.todo.admin;
+
+import com.example.todo.auth.PasswordHashingExecutor;
+import com.example.todo.auth.TokenProvider;
+import com.example.todo.auth.TokenRevocationList;
+import com.example.todo.cache.CacheStats;
+import com.example.todo.config.SecondLevelCacheConfig;
+import com.example.todo.todoapi.event.TodoChangeFeed;
+import com.example.todo.todoapi.service.TodoListCache;
+import com.example.todo.todoapi.service.TodoSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Map;
+
+// 운영 지표(캐시 적중률 등)를 확인하기 위한 관리자 전용 컨트롤러
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/stats")
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+public class StatsController {
+
+    private final TodoListCache todoListCache;
+    private final TodoChangeFeed todoChangeFeed;
+    private final TodoSearchIndex todoSearchIndex;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TokenProvider tokenProvider;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final TokenRevocationList tokenRevocationList;
+
+    @Value("${todo.user-cache.max-entries:10000}")
+    private int userCacheMaxEntries;
+
+    // 할 일 목록 캐시 통계 (적중한 조회도 목록 버전 확인을 위해 카운터 행을 PK로 한 번 읽음)
+    @GetMapping("/todo-cache")
+    public ResponseEntity<?> todoCacheStats() {
+        log.info("/api/admin/stats/todo-cache GET!");
+        return ResponseEntity.ok().body(todoListCache.stats());
+    }
+
+    // 할 일 검색 색인 통계 (색인을 보관 중인 회원 수, 적중률)
+    @GetMapping("/todo-search")
+    public ResponseEntity<?> todoSearchStats() {
+        log.info("/api/admin/stats/todo-search GET!");
+        return ResponseEntity.ok().body(todoSearchIndex.stats());
+    }
+
+    // 회원 엔터티 2차 캐시 통계
+    @GetMapping("/user-cache")
+    public ResponseEntity<?> userCacheStats() {
+        log.info("/api/admin/stats/user-cache GET!");
+
+        CacheRegionStatistics region = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics()
+                .getDomainDataRegionStatistics(SecondLevelCacheConfig.USER_REGION);
+        if(region == null) {
+            // 2차 캐시나 통계 수집이 꺼져 있는 경우
+            return ResponseEntity.ok().body(CacheStats.builder()
+                    .name(SecondLevelCacheConfig.USER_REGION)
+                    .maxSize(userCacheMaxEntries)
+                    .build());
+        }
+
+        return ResponseEntity.ok().body(CacheStats.builder()
+                .name(SecondLevelCacheConfig.USER_REGION)
+                .size((int) Math.max(0, region.getElementCountInMemory()))
+                .maxSize(userCacheMaxEntries)
+                .hits(region.getHitCount())
+                .misses(region.getMissCount())
+                .build());
+    }
+
+    // 검증된 토큰 캐시 통계
+    @GetMapping("/verified-token")
+    public ResponseEntity<?> verifiedTokenStats() {
+        log.info("/api/admin/stats/verified-token GET!");
+        return ResponseEntity.ok().body(tokenProvider.verifiedTokenStats());
+    }
+
+    // 폐기된 토큰 확인 통계 (블룸 필터로 바로 통과한 비율, DB 확인 캐시)
+    @GetMapping("/token-revocation")
+    public ResponseEntity<?> tokenRevocationStats() {
+        log.info("/api/admin/stats/token-revocation GET!");
+        return ResponseEntity.ok().body(tokenRevocationList.stats());
+    }
+
+    // 비밀번호 해싱 통계 (대기열 길이, 대기/해싱 시간, 거절 횟수)
+    @GetMapping("/password-hashing")
+    public ResponseEntity<?> passwordHashingStats() {
+        log.info("/api/admin/stats/password-hashing GET!");
+        return ResponseEntity.ok().body(passwordHashingExecutor.stats());
+    }
+
+    // 할 일 변경 피드(SSE) 연결 수
+    @GetMapping("/todo-events")
+    public ResponseEntity<?> todoEventStats() {
+        log.info("/api/admin/stats/todo-events GET!");
+        return ResponseEntity.ok().body(Map.of("connections", todoChangeFeed.connectionCount()));
+    }
+
+}
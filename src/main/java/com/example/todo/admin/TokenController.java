@@ -0,0 +1,41 @@
+package com.example.todo.admin;
+
+import com.example.todo.auth.TokenRevocationList;
+import com.example.todo.userapi.service.RefreshTokenService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Instant;
+import java.util.Map;
+
+// 계정 도용이 의심될 때 회원의 토큰을 강제로 폐기하기 위한 관리자 전용 컨트롤러
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/api/admin/tokens")
+@PreAuthorize("hasRole('ROLE_ADMIN')")
+public class TokenController {
+
+    private final TokenRevocationList tokenRevocationList;
+    private final RefreshTokenService refreshTokenService;
+
+    // 회원에게 지금까지 발급된 액세스 토큰과 리프레시 토큰을 모두 폐기 (다시 로그인해야 함)
+    @PostMapping("/users/{userId}/revoke")
+    public ResponseEntity<?> revokeAll(@PathVariable String userId) {
+        log.info("/api/admin/tokens/users/{}/revoke POST!", userId);
+
+        tokenRevocationList.revokeIssuedBefore(userId, Instant.now());
+        int refreshTokens = refreshTokenService.revokeAll(userId);
+
+        return ResponseEntity.ok().body(Map.of(
+                "userId", userId,
+                "revokedRefreshTokens", refreshTokens));
+    }
+
+}
@@ -0,0 +1,213 @@
+package com.example.todo.auth;
+
+import com.example.todo.exception.PasswordHashingBusyException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Component
+@Slf4j
+// 역할: 비밀번호 해싱(BCrypt)을 전용 스레드에서 실행하는 객체.
+//
+// - BCrypt는 한 번에 수십 ms씩 CPU를 쓰므로, 로그인/가입이 몰리면 요청 스레드가 모두 해싱에 묶여
+//   다른 API까지 느려진다. 전용 스레드 수(threads)만큼만 동시에 해싱하고 나머지는 대기열에서 기다린다.
+// - 대기열(queue-capacity)이 가득 차거나 timeout 안에 차례가 오지 않으면 기다리지 않고
+//   PasswordHashingBusyException을 던진다. (컨트롤러에서 503 + Retry-After로 응답)
+//   timeout은 대기열에서 기다리는 시간에만 적용되고, 이미 시작한 해싱은 끝날 때까지 기다린다.
+//   (포기한 작업은 차례가 와도 실행하지 않으므로 해싱 스레드를 낭비하지 않음)
+// - 저장된 해시의 비용이 설정(auth.bcrypt-strength)과 다르면 needsRehash로 알려준다.
+//   (로그인에 성공했을 때 새 비용으로 다시 해싱해서 저장)
+//
+// auth.password-hashing.threads: 해싱 전용 스레드 수 (기본 CPU 코어 수)
+// auth.password-hashing.queue-capacity: 최대 대기 작업 수 (기본 64)
+// auth.password-hashing.timeout: 차례를 기다리는 최대 시간 (기본 3초)
+public class PasswordHashingExecutor {
+
+    // $2a$10$... 형식에서 비용(10)을 꺼냄
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[abxy]?\\$(\\d{2})\\$");
+    private static final long MAX_RETRY_AFTER_SECONDS = 30;
+
+    // 작업 상태
+    private static final int QUEUED = 0; // 대기열에서 차례를 기다리는 중
+    private static final int RUNNING = 1; // 해싱 중
+    private static final int ABANDONED = 2; // 차례를 기다리다 포기함 (실행하지 않음)
+
+    private final PasswordEncoder passwordEncoder;
+    private final int strength;
+    private final int threads;
+    private final int queueCapacity;
+    private final Duration timeout;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder rehashed = new LongAdder();
+    private final LongAdder measured = new LongAdder();
+    private final LongAdder queueNanos = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final AtomicLong maxHashNanos = new AtomicLong();
+
+    public PasswordHashingExecutor(
+            PasswordEncoder passwordEncoder,
+            @Value("${auth.bcrypt-strength:10}") int strength,
+            @Value("${auth.password-hashing.threads:0}") int threads,
+            @Value("${auth.password-hashing.queue-capacity:64}") int queueCapacity,
+            @Value("${auth.password-hashing.timeout:3s}") Duration timeout
+    ) {
+        this.passwordEncoder = passwordEncoder;
+        this.strength = strength;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = queueCapacity;
+        this.timeout = timeout;
+
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hashing-" + sequence.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 비밀번호를 해싱
+     * @throws PasswordHashingBusyException - 대기열이 가득 찼거나 timeout 안에 차례가 오지 않은 경우
+     */
+    public String encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * 비밀번호가 저장된 해시와 일치하는지 확인
+     * @throws PasswordHashingBusyException - 대기열이 가득 찼거나 timeout 안에 차례가 오지 않은 경우
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * 저장된 해시의 비용이 설정과 달라서 다시 해싱해야 하는지 확인 (해싱하지 않으므로 바로 리턴)
+     * BCrypt 형식이 아니면 false
+     */
+    public boolean needsRehash(String encodedPassword) {
+        if (encodedPassword == null) return false;
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    // 로그인하면서 새 비용으로 다시 해싱한 경우 호출
+    public void recordRehash() {
+        rehashed.increment();
+    }
+
+    public PasswordHashingStats stats() {
+        long count = measured.sum();
+        return PasswordHashingStats.builder()
+                .threads(threads)
+                .active(executor.getActiveCount())
+                .queued(executor.getQueue().size())
+                .queueCapacity(queueCapacity)
+                .completed(executor.getCompletedTaskCount())
+                .rejected(rejected.sum())
+                .timedOut(timedOut.sum())
+                .avgQueueMillis(count == 0 ? 0 : toMillis(queueNanos.sum()) / count)
+                .avgHashMillis(count == 0 ? 0 : toMillis(hashNanos.sum()) / count)
+                .maxHashMillis(toMillis(maxHashNanos.get()))
+                .strength(strength)
+                .rehashed(rehashed.sum())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T submit(Callable<T> task) {
+        long submittedAt = System.nanoTime();
+        // 대기 중인 작업을 포기할지, 시작한 작업의 결과를 기다릴지 정하기 위한 상태
+        AtomicInteger state = new AtomicInteger(QUEUED);
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                if (!state.compareAndSet(QUEUED, RUNNING)) return null; // 기다리다 포기한 작업
+                long startedAt = System.nanoTime();
+                try {
+                    return task.call();
+                } finally {
+                    record(startedAt - submittedAt, System.nanoTime() - startedAt);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("비밀번호 해싱 대기열이 가득 찼습니다. - 대기 중: {}", executor.getQueue().size());
+            throw busy();
+        }
+
+        try {
+            try {
+                return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                if (state.compareAndSet(QUEUED, ABANDONED)) {
+                    // 아직 차례가 오지 않음 -> 대기열에서 빼고 바로 거절
+                    future.cancel(false);
+                    timedOut.increment();
+                    throw busy();
+                }
+                // 이미 해싱을 시작했다면 버리지 않고 끝날 때까지 기다림 (해싱 한 번 시간)
+                return future.get();
+            }
+        } catch (InterruptedException e) {
+            state.compareAndSet(QUEUED, ABANDONED);
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("비밀번호 확인이 중단되었습니다.", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private void record(long waited, long hashed) {
+        measured.increment();
+        queueNanos.add(waited);
+        hashNanos.add(hashed);
+        maxHashNanos.accumulateAndGet(hashed, Math::max);
+    }
+
+    // 대기 중인 작업이 모두 끝날 때까지 걸릴 시간을 Retry-After로 알려줌 (1 ~ 30초)
+    private PasswordHashingBusyException busy() {
+        long count = measured.sum();
+        double avgMillis = count == 0 ? 100 : toMillis(hashNanos.sum()) / count;
+        double backlogMillis = (executor.getQueue().size() + threads) * avgMillis / threads;
+        long retryAfter = Math.min(MAX_RETRY_AFTER_SECONDS, Math.max(1, (long) Math.ceil(backlogMillis / 1000)));
+        return new PasswordHashingBusyException(
+                "로그인 요청이 많아 잠시 후 다시 시도해 주세요.", retryAfter);
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.example.todo.auth;
+
+import lombok.*;
+
+// 비밀번호 해싱 작업 통계 (관리자 통계 API로 응답)
+@Getter
+@ToString @EqualsAndHashCode
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class PasswordHashingStats {
+
+    private int threads; // 해싱 전용 스레드 수
+    private int active; // 지금 해싱 중인 작업 수
+    private int queued; // 대기 중인 작업 수
+    private int queueCapacity; // 최대 대기 작업 수
+    private long completed; // 완료된 작업 수
+    private long rejected; // 대기열이 가득 차서 거절된 작업 수
+    private long timedOut; // 기다리다 포기한 작업 수
+    private double avgQueueMillis; // 평균 대기 시간
+    private double avgHashMillis; // 평균 해싱 시간
+    private double maxHashMillis; // 최대 해싱 시간
+    private int strength; // 설정된 BCrypt 비용
+    private long rehashed; // 로그인할 때 새 비용으로 다시 해싱한 횟수
+}
@@ -2,7 +2,10 @@ package com.example.todo.auth;
 
 import com.example.todo.userapi.entity.Role;
 import com.example.todo.userapi.entity.User;
+import com.example.todo.cache.BoundedCache;
+import com.example.todo.cache.CacheStats;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -10,21 +13,54 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.security.Key;
+import java.time.Duration;
 import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.UUID;
 
 @Component
 @Slf4j
 // 역할: 토큰을 발급하고, 서명 위조를 검사하는 객체.
+//
+// - 서명 키와 파서는 생성할 때 한 번만 만들고 재사용한다. (스레드에 안전함)
+// - 검증에 성공한 토큰은 만료 시각(exp)까지 캐시해서, 같은 토큰이 다시 오면 서명 검사와 파싱을 생략한다.
+//   키는 토큰 원문 대신 SHA-256 해시를 사용하고, 위조되었거나 만료된 토큰은 캐시하지 않는다.
+//
+// jwt.access-token-ttl: 액세스 토큰 유효 시간 (기본 15분, 만료되면 리프레시 토큰으로 재발급)
+// jwt.verified-cache.max-size: 캐시할 토큰 수 (기본 10000)
+// jwt.verified-cache.ttl: 캐시 최대 보관 시간 (기본 1시간, 토큰 만료 시각이 더 이르면 그 시각까지)
 public class TokenProvider {
 
-    // 서명에 사용할 값 (512비트 이상의 랜덤 문자열)
+    // 서명에 사용할 키 (512비트 이상의 랜덤 문자열로 만든 HMAC 키)
+    private final Key signingKey;
+
+    // 서명 검사와 파싱을 하는 파서
+    private final JwtParser jwtParser;
+
+    // 액세스 토큰 유효 시간
+    private final Duration accessTokenTtl;
+
+    // 토큰 해시 -> 검증된 회원 정보
+    private final BoundedCache<String, TokenUserInfo> verifiedTokens;
+
     // @Value: properties 형태의 파일의 내용을 읽어서 변수에 대입하는 아노테이션. (yml도 가능)
-    @Value("${jwt.secret}")
-    private String SECRET_KEY;
+    public TokenProvider(
+            @Value("${jwt.secret}") String secretKey,
+            @Value("${jwt.access-token-ttl:15m}") Duration accessTokenTtl,
+            @Value("${jwt.verified-cache.max-size:10000}") int cacheSize,
+            @Value("${jwt.verified-cache.ttl:1h}") Duration cacheTtl
+    ) {
+        this.signingKey = Keys.hmacShaKeyFor(secretKey.getBytes());
+        this.jwtParser = Jwts.parserBuilder()
+                // 토큰 발급자의 발급 당시의 서명을 넣어줌
+                .setSigningKey(signingKey)
+                .build();
+        this.accessTokenTtl = accessTokenTtl;
+        this.verifiedTokens = new BoundedCache<>("verified-token", cacheSize, cacheTtl);
+    }
 
     // 토큰 생성 메서드
 
@@ -34,10 +70,20 @@ public class TokenProvider {
      * @return - 생성된 JSON을 암호화 한 토큰값
      */
     public String createToken(User userEntity) {
+        return createToken(userEntity, Instant.now());
+    }
+
+    /**
+     * 발급 시각을 지정해서 토큰을 생성 (토큰을 모두 폐기한 직후, 기준 시각보다 나중의 iat가 필요할 때)
+     * @param userEntity - 토큰의 내용(클레임)에 포함될 유저 정보
+     * @param issuedAt - 발급 시각 (iat, 초 단위로 기록됨)
+     * @return - 생성된 JSON을 암호화 한 토큰값
+     */
+    public String createToken(User userEntity, Instant issuedAt) {
 
         // 토큰 만료시간 생성
         Date expiry = Date.from(
-                Instant.now().plus(10, ChronoUnit.SECONDS)
+                issuedAt.plus(accessTokenTtl)
         );
 
         // 토큰 생성
@@ -61,42 +107,67 @@ public class TokenProvider {
 
         return Jwts.builder()
                 // token header에 들어갈 서명
-                .signWith(
-                        Keys.hmacShaKeyFor(SECRET_KEY.getBytes()),
-                        SignatureAlgorithm.HS512
-                )
+                .signWith(signingKey, SignatureAlgorithm.HS512)
                 // token payload에 들어갈 클레임 설정.
                 .setClaims(claims) // 추가 클레임은 먼저 설정해야 함.
                 .setIssuer("Todo운영자") // iss: 발급자 정보
-                .setIssuedAt(new Date()) // iat: 발급 시간
+                .setIssuedAt(Date.from(issuedAt)) // iat: 발급 시간
                 .setExpiration(expiry) // exp: 만료 시간
                 .setSubject(userEntity.getId()) // sub: 토큰을 식별할 수 있는 주요 데이터
+                .setId(UUID.randomUUID().toString().replace("-", "")) // jti: 토큰 id (로그아웃 시 이 토큰만 폐기)
                 .compact();
     }
 
     /**
      * 클라이언트가 전송한 토큰을 디코딩하여 토큰의 위조 여부를 확인
      * 토큰을 json으로 파싱해서 클레임(토큰 정보)을 리턴
+     * 이미 검증한 토큰이라면 캐시된 정보를 바로 리턴한다.
      * @param token
      * @return - 토큰 안에 있는 인증된 유저 정보를 반환
      */
     public TokenUserInfo validateAndGetTokenUserInfo(String token) {
-        Claims claims = Jwts.parserBuilder()
-                // 토큰 발급자의 발급 당시의 서명을 넣어줌
-                .setSigningKey(Keys.hmacShaKeyFor(SECRET_KEY.getBytes()))
+        // 토큰 원문을 메모리에 보관하지 않도록 해시를 키로 사용
+        String key = TokenHashing.sha256(token);
+        TokenUserInfo cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Claims claims = parse(token);
+        Date issuedAt = claims.getIssuedAt();
+        Date expiration = claims.getExpiration();
+        TokenUserInfo userInfo = TokenUserInfo.builder()
+                .userId(claims.getSubject())
+                .email(claims.get("email", String.class))
+                .role(Role.valueOf(claims.get("role", String.class)))
+                .tokenId(claims.getId())
+                .issuedAt(issuedAt == null ? null : issuedAt.toInstant())
+                .expiresAt(expiration == null ? null : expiration.toInstant())
+                .build();
+
+        // 만료 시각이 지나면 캐시에서도 사라지므로, 만료된 토큰이 캐시로 통과되는 일은 없다.
+        // (만료 시각이 없는 토큰은 캐시하지 않음)
+        // 폐기 여부는 캐시와 상관없이 요청마다 JwtAuthFilter에서 확인한다.
+        if (expiration != null) {
+            verifiedTokens.put(key, userInfo, expiration.getTime());
+        }
+        return userInfo;
+    }
+
+    // 캐시를 거치지 않고 서명 검사와 파싱을 수행
+    Claims parse(String token) {
+        Claims claims = jwtParser
                 //서명 위조 검사: 위조된 경우에는 예외가 발생합니다.
                 //위조가 되지 않은 경우 payload를 리턴 (Jws<Claims> 가 payload 인건가요?)
-                .build()
                 .parseClaimsJws(token)
                 .getBody();
 
-        log.info("claims: {}", claims);
+        log.debug("claims: {}", claims);
+        return claims;
+    }
 
-        return TokenUserInfo.builder()
-                .userId(claims.getSubject())
-                .email(claims.get("email", String.class))
-                .role(Role.valueOf(claims.get("role", String.class)))
-                .build();
+    public CacheStats verifiedTokenStats() {
+        return verifiedTokens.stats();
     }
 
 
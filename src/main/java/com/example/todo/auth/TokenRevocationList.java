@@ -0,0 +1,253 @@
+package com.example.todo.auth;
+
+import com.example.todo.cache.BloomFilter;
+import com.example.todo.cache.BoundedCache;
+import com.example.todo.userapi.entity.RevokedToken;
+import com.example.todo.userapi.entity.TokenWatermark;
+import com.example.todo.userapi.repository.RevokedTokenRepository;
+import com.example.todo.userapi.repository.TokenWatermarkRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+// 역할: 만료 전에 폐기된 액세스 토큰을 기록하고, 요청마다 폐기 여부를 확인하는 객체.
+//
+// - 토큰 하나를 폐기(로그아웃)할 때는 jti를, 회원의 토큰을 모두 폐기(등급 변경, 계정 도용)할 때는
+//   "이 시각까지 발급된 토큰은 폐기" 라는 기준 시각(watermark)을 DB에 저장한다.
+//   (iat가 초 단위라서 기준 시각과 같은 초에 발급된 토큰도 폐기됨. 폐기 직후에 줄 토큰은 기준 시각 다음 초로 발급)
+// - 폐기된 jti와 기준 시각이 있는 회원 id를 블룸 필터에 담아두고, 필터에 없으면 DB를 조회하지 않고 바로 통과시킨다.
+//   (대부분의 요청은 폐기되지 않은 토큰이므로 해시 몇 번으로 끝남)
+// - 필터에 있다면(폐기되었거나 오탐) DB에서 확인하고, 결과는 다음에 필터를 다시 만들 때까지 캐시한다.
+// - 다른 서버에서 폐기한 토큰도 반영되도록 refresh-millis마다 DB에서 필터를 다시 만든다.
+//   이때 만료된 항목은 빠지고, 만료된 행은 cleanup-millis마다 DB에서도 지운다.
+// - 이 서버에서 폐기한 항목은 다시 만들기 시작하기 전에 커밋되었다고 확인될 때까지 따로 기억해 두고,
+//   새 필터에 함께 넣는다. (DB를 읽은 뒤에 폐기했거나 아직 커밋되지 않아서 DB에서 읽지 못한 항목이 빠지지 않도록)
+//
+// jwt.revocation.refresh-millis: 필터를 다시 만드는 주기 (기본 5초)
+// jwt.revocation.false-positive-rate: 필터 오탐률 (기본 1%)
+// jwt.revocation.cache-size: DB 확인 결과 캐시 크기 (기본 10000)
+public class TokenRevocationList {
+
+    // 회원 기준 시각을 필터에 넣을 때 jti와 구분하기 위한 접두어
+    private static final String USER_KEY_PREFIX = "user:";
+    private static final int MIN_EXPECTED_INSERTIONS = 1024;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final TokenWatermarkRepository tokenWatermarkRepository;
+    private final Duration accessTokenTtl;
+    private final double falsePositiveRate;
+
+    // null이면 아직 DB에서 읽지 않은 상태 -> 모든 토큰을 DB에서 확인
+    private volatile BloomFilter filter;
+
+    // jti -> 폐기 여부 (필터를 통과하지 못한 토큰만)
+    private final BoundedCache<String, Boolean> confirmed;
+
+    // 이 서버에서 필터에 넣은 항목 -> 커밋된 시각(System.nanoTime, 커밋 전이라면 Long.MAX_VALUE)
+    // 필터를 다시 만들기 시작하기 전에 커밋된 항목은 DB에서 읽히므로 그때 지운다.
+    private final Map<String, Long> recentlyAdded = new ConcurrentHashMap<>();
+
+    private final AtomicLong checks = new AtomicLong();
+    private final AtomicLong filterPasses = new AtomicLong();
+    private final AtomicLong rejectedTokens = new AtomicLong();
+
+    public TokenRevocationList(
+            RevokedTokenRepository revokedTokenRepository,
+            TokenWatermarkRepository tokenWatermarkRepository,
+            @Value("${jwt.access-token-ttl:15m}") Duration accessTokenTtl,
+            @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${jwt.revocation.cache-size:10000}") int cacheSize
+    ) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.tokenWatermarkRepository = tokenWatermarkRepository;
+        this.accessTokenTtl = accessTokenTtl;
+        this.falsePositiveRate = falsePositiveRate;
+        this.confirmed = new BoundedCache<>("token-revocation", cacheSize, accessTokenTtl);
+    }
+
+    /**
+     * 토큰이 폐기되었는지 확인
+     * @param userInfo - 서명 검사를 통과한 토큰의 정보
+     * @return - 폐기된 토큰이면 true
+     */
+    public boolean isRevoked(TokenUserInfo userInfo) {
+        checks.incrementAndGet();
+        String tokenId = userInfo.getTokenId();
+        String userKey = USER_KEY_PREFIX + userInfo.getUserId();
+
+        BloomFilter current = filter;
+        if (current != null
+                && (tokenId == null || !current.mightContain(tokenId))
+                && !current.mightContain(userKey)) {
+            filterPasses.incrementAndGet();
+            return false;
+        }
+
+        boolean revoked;
+        if (tokenId == null) {
+            revoked = loadRevoked(userInfo); // jti가 없는 예전 토큰은 캐시 키가 없으므로 매번 확인
+        } else {
+            revoked = confirmed.getOrLoad(tokenId, v -> true, id -> loadRevoked(userInfo));
+        }
+        if (revoked) rejectedTokens.incrementAndGet();
+        return revoked;
+    }
+
+    /**
+     * 토큰 하나를 폐기 (로그아웃)
+     * jti가 없는 예전 토큰이라면 그 회원의 현재까지 발급된 토큰을 모두 폐기한다.
+     */
+    @Transactional
+    public void revoke(TokenUserInfo userInfo) {
+        if (userInfo.getTokenId() == null || userInfo.getExpiresAt() == null) {
+            revokeIssuedBefore(userInfo.getUserId(), Instant.now());
+            return;
+        }
+
+        if (!revokedTokenRepository.existsById(userInfo.getTokenId())) {
+            revokedTokenRepository.save(RevokedToken.builder()
+                    .tokenId(userInfo.getTokenId())
+                    .userId(userInfo.getUserId())
+                    .expiresAt(toLocal(userInfo.getExpiresAt()))
+                    .build());
+        }
+        add(userInfo.getTokenId());
+    }
+
+    /**
+     * 회원에게 before까지 발급된 토큰을 모두 폐기 (등급 변경, 계정 도용)
+     * 토큰의 발급 시각(iat)은 초 단위이므로 기준 시각도 초 단위로 내리고, 같은 초에 발급된 토큰까지 폐기한다.
+     * (폐기하는 순간과 같은 초에 발급된 도용 토큰이 살아남지 않도록)
+     * @return - 기준 시각. 폐기 직후에 새로 발급하는 토큰은 이 시각보다 나중의 iat로 발급해야 한다.
+     */
+    @Transactional
+    public Instant revokeIssuedBefore(String userId, Instant before) {
+        Instant watermarkAt = before.truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime revokedBefore = toLocal(watermarkAt);
+        LocalDateTime expiresAt = toLocal(before.plus(accessTokenTtl));
+
+        TokenWatermark watermark = tokenWatermarkRepository.findById(userId).orElse(null);
+        if (watermark == null) {
+            tokenWatermarkRepository.save(TokenWatermark.builder()
+                    .userId(userId)
+                    .revokedBefore(revokedBefore)
+                    .expiresAt(expiresAt)
+                    .build());
+        } else {
+            watermark.raise(revokedBefore, expiresAt);
+        }
+        add(USER_KEY_PREFIX + userId);
+        return watermarkAt;
+    }
+
+    // DB에서 필터를 다시 만듦 (다른 서버에서 폐기한 토큰 반영, 만료된 항목 제거)
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-millis:5000}")
+    public void reload() {
+        try {
+            long started = System.nanoTime();
+            LocalDateTime now = LocalDateTime.now();
+            List<String> tokenIds = revokedTokenRepository.findActiveTokenIds(now);
+            List<String> userIds = tokenWatermarkRepository.findActiveUserIds(now);
+
+            // 다음에 다시 만들 때까지 이 서버에서 폐기할 토큰을 위한 여유를 둠
+            int expected = Math.max(MIN_EXPECTED_INSERTIONS, (tokenIds.size() + userIds.size()) * 2);
+            BloomFilter rebuilt = new BloomFilter(expected, falsePositiveRate);
+            tokenIds.forEach(rebuilt::put);
+            userIds.forEach(userId -> rebuilt.put(USER_KEY_PREFIX + userId));
+            recentlyAdded.keySet().forEach(rebuilt::put);
+
+            filter = rebuilt;
+            // 바꾸기 직전에 이전 필터에만 들어간 항목도 옮김 (add는 기록을 먼저 하고 필터를 읽음)
+            recentlyAdded.keySet().forEach(rebuilt::put);
+            recentlyAdded.values().removeIf(committedAt -> committedAt - started < 0);
+            confirmed.invalidateAll(); // 캐시된 "폐기되지 않음"이 다른 서버의 폐기를 가리지 않도록
+        } catch (RuntimeException e) {
+            log.error("폐기된 토큰 목록 갱신 실패", e);
+        }
+    }
+
+    // 원래 만료될 시각이 지난 항목을 DB에서 정리
+    @Scheduled(fixedDelayString = "${jwt.revocation.cleanup-millis:600000}")
+    @Transactional
+    public void cleanUp() {
+        LocalDateTime now = LocalDateTime.now();
+        int tokens = revokedTokenRepository.deleteExpiredBefore(now);
+        int watermarks = tokenWatermarkRepository.deleteExpiredBefore(now);
+        if (tokens + watermarks > 0) {
+            log.info("만료된 폐기 토큰 {}개, 폐기 기준 시각 {}개 정리", tokens, watermarks);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        BloomFilter current = filter;
+        return Map.of(
+                "loaded", current != null,
+                "filterCapacity", current == null ? 0 : current.expectedInsertions(),
+                "filterBits", current == null ? 0 : current.bitCount(),
+                "checks", checks.get(),
+                "filterPasses", filterPasses.get(),
+                "rejected", rejectedTokens.get(),
+                "dbChecks", confirmed.stats());
+    }
+
+    // 이 서버에서 폐기한 항목은 다음 갱신을 기다리지 않고 바로 반영
+    // 필터에는 바로 넣고(DB 확인으로 넘어가게 함), 확인 결과 캐시는 커밋된 뒤에 한 번 더 비운다.
+    // (커밋 전에 들어온 요청이 "폐기되지 않음"을 캐시해 둘 수 있으므로)
+    // 다시 만드는 중인 필터에서 빠지지 않도록 필터에 넣기 전에 recentlyAdded에 먼저 기록한다.
+    private void add(String key) {
+        boolean inTransaction = TransactionSynchronizationManager.isSynchronizationActive();
+        recentlyAdded.put(key, inTransaction ? Long.MAX_VALUE : System.nanoTime());
+
+        BloomFilter current = filter;
+        if (current != null) current.put(key);
+        confirmed.invalidateAll();
+
+        if (inTransaction) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_COMMITTED) {
+                        recentlyAdded.replace(key, System.nanoTime());
+                        confirmed.invalidateAll();
+                    } else {
+                        // 롤백되었다면 DB에 없으므로 다음 필터에서 빠져도 됨 (먼저 커밋된 같은 항목은 남김)
+                        recentlyAdded.remove(key, Long.MAX_VALUE);
+                    }
+                }
+            });
+        }
+    }
+
+    private boolean loadRevoked(TokenUserInfo userInfo) {
+        if (userInfo.getTokenId() != null && revokedTokenRepository.existsById(userInfo.getTokenId())) {
+            return true;
+        }
+        if (userInfo.getIssuedAt() == null) return false;
+
+        LocalDateTime issuedAt = toLocal(userInfo.getIssuedAt());
+        return tokenWatermarkRepository.findById(userInfo.getUserId())
+                .map(w -> !issuedAt.isAfter(w.getRevokedBefore()))
+                .orElse(false);
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+}
@@ -3,13 +3,22 @@ package com.example.todo.auth;
 import com.example.todo.userapi.entity.Role;
 import lombok.*;
 
+import java.time.Instant;
+
+// 검증된 토큰의 회원 정보
+// TokenProvider가 캐시해서 여러 요청이 같은 객체를 공유하므로 변경할 수 없게 만든다.
 @Getter
 @ToString @EqualsAndHashCode
-@NoArgsConstructor @AllArgsConstructor
+@AllArgsConstructor
 @Builder
 public class TokenUserInfo {
 
-    private String userId;
-    private String email;
-    private Role role;
+    private final String userId;
+    private final String email;
+    private final Role role;
+
+    // 폐기 여부 확인에 사용 (jti가 없는 예전 토큰은 null)
+    private final String tokenId; // jti
+    private final Instant issuedAt; // iat
+    private final Instant expiresAt; // exp
 }
@@ -0,0 +1,230 @@
+package com.example.todo.cache;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 크기 제한(LRU)과 만료 시간(TTL)이 있는 메모리 캐시.
+ * - 최대 개수를 넘으면 가장 오래 사용되지 않은 항목부터 제거
+ * - 같은 키에 대해 동시에 캐시 미스가 나면 로딩은 한 번만 수행하고 나머지는 그 결과를 기다림
+ * - 적중/미스/제거 횟수를 기록해서 캐시 크기를 정할 때 참고할 수 있음
+ *
+ * @param <K> - 캐시 키 타입
+ * @param <V> - 캐시 값 타입
+ */
+public class BoundedCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlMillis;
+
+    // accessOrder = true: 조회할 때마다 맨 뒤로 이동 -> 맨 앞이 가장 오래 사용되지 않은 항목
+    private final LinkedHashMap<K, CacheEntry<V>> store;
+
+    // 로딩 중인 키 -> 로딩 결과 (동시에 들어온 미스 요청들이 공유)
+    private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public BoundedCache(String name, int maxSize, Duration ttl) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("캐시 크기는 1 이상이어야 합니다.");
+        }
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlMillis = ttl.toMillis();
+        this.store = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+                if (size() > BoundedCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 캐시에 있는 값을 리턴
+     * @param key - 캐시 키
+     * @return - 값이 없거나 만료되었다면 null
+     */
+    public V getIfPresent(K key) {
+        return lookup(key, v -> true);
+    }
+
+    /**
+     * 캐시에 있는 값을 리턴하고, 없다면 loader로 읽어와서 저장한 뒤 리턴
+     * @param key - 캐시 키
+     * @param fresh - 캐시에 있는 값을 그대로 써도 되는지 판단하는 조건 (false면 미스로 처리)
+     * @param loader - 미스일 때 값을 읽어오는 함수
+     * @return - 캐시 또는 loader에서 얻은 값
+     */
+    public V getOrLoad(K key, Predicate<V> fresh, Function<K, V> loader) {
+        V cached = lookup(key, fresh);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = loading.putIfAbsent(key, mine);
+
+        if (running != null) {
+            // 다른 요청이 이미 로딩 중 -> 그 결과를 기다림
+            V loaded = await(running);
+            if (loaded == null || fresh.test(loaded)) {
+                return loaded;
+            }
+            // 기다리는 사이에 값이 바뀌어 이미 오래된 결과라면 직접 다시 읽음
+            V reloaded = loader.apply(key);
+            putIfFresher(key, reloaded, fresh);
+            return reloaded;
+        }
+
+        try {
+            V loaded = loader.apply(key);
+            if (loaded != null) {
+                put(key, loaded);
+            }
+            mine.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, mine);
+        }
+    }
+
+    public void put(K key, V value) {
+        put(key, value, System.currentTimeMillis() + ttlMillis);
+    }
+
+    /**
+     * 만료 시각을 직접 지정해서 저장 (캐시의 TTL보다 길게 지정해도 TTL이 우선)
+     * @param expiresAtMillis - 만료 시각 (epoch millis)
+     */
+    public void put(K key, V value, long expiresAtMillis) {
+        long expiresAt = Math.min(expiresAtMillis, System.currentTimeMillis() + ttlMillis);
+        synchronized (store) {
+            store.put(key, new CacheEntry<>(value, expiresAt));
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (store) {
+            store.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (store) {
+            store.clear();
+        }
+    }
+
+    // 만료된 항목을 한꺼번에 정리 (주기적으로 호출하면 메모리를 빨리 돌려받을 수 있음)
+    public void cleanUp() {
+        long now = System.currentTimeMillis();
+        synchronized (store) {
+            Iterator<CacheEntry<V>> it = store.values().iterator();
+            while (it.hasNext()) {
+                if (it.next().isExpired(now)) {
+                    it.remove();
+                    expirations.incrementAndGet();
+                }
+            }
+        }
+    }
+
+    public int size() {
+        synchronized (store) {
+            return store.size();
+        }
+    }
+
+    public CacheStats stats() {
+        return CacheStats.builder()
+                .name(name)
+                .size(size())
+                .maxSize(maxSize)
+                .hits(hits.get())
+                .misses(misses.get())
+                .evictions(evictions.get())
+                .expirations(expirations.get())
+                .build();
+    }
+
+    private V lookup(K key, Predicate<V> fresh) {
+        long now = System.currentTimeMillis();
+        synchronized (store) {
+            CacheEntry<V> entry = store.get(key);
+            if (entry == null) {
+                misses.incrementAndGet();
+                return null;
+            }
+            if (entry.isExpired(now)) {
+                store.remove(key);
+                expirations.incrementAndGet();
+                misses.incrementAndGet();
+                return null;
+            }
+            if (!fresh.test(entry.value)) {
+                store.remove(key);
+                misses.incrementAndGet();
+                return null;
+            }
+            hits.incrementAndGet();
+            return entry.value;
+        }
+    }
+
+    // 이미 더 최신 값이 들어있다면 덮어쓰지 않음
+    private void putIfFresher(K key, V value, Predicate<V> fresh) {
+        if (value == null) return;
+        synchronized (store) {
+            CacheEntry<V> current = store.get(key);
+            if (current == null || !fresh.test(current.value)) {
+                store.put(key, new CacheEntry<>(value, System.currentTimeMillis() + ttlMillis));
+            }
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static class CacheEntry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        CacheEntry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.example.todo.cache;
+
+import lombok.*;
+
+// 캐시 통계 (관리자 통계 API로 응답)
+@Getter
+@ToString @EqualsAndHashCode
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class CacheStats {
+
+    private String name;
+    private int size; // 현재 저장된 항목 수
+    private int maxSize; // 최대 항목 수
+    private long hits; // 캐시 적중 횟수
+    private long misses; // 캐시 미스 횟수
+    private long evictions; // 크기 제한 때문에 제거된 횟수
+    private long expirations; // 만료되어 제거된 횟수
+
+    // 적중률 (0 ~ 1)
+    public double getHitRate() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
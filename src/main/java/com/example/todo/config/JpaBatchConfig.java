@@ -0,0 +1,28 @@
+package com.example.todo.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// 하이버네이트 JDBC 배치 설정
+// 여러 건의 INSERT/UPDATE를 한 번의 배치로 묶어서 DB에 보낸다.
+// (MySQL은 JDBC URL에 rewriteBatchedStatements=true 를 추가해야 INSERT가 한 문장으로 합쳐짐)
+@Configuration
+public class JpaBatchConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchCustomizer(
+            @Value("${todo.jpa.batch-size:50}") int batchSize
+    ) {
+        // yml에 직접 설정한 값이 있다면 그 값을 우선한다.
+        return properties -> {
+            properties.putIfAbsent(AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(batchSize));
+            properties.putIfAbsent(AvailableSettings.ORDER_INSERTS, "true");
+            properties.putIfAbsent(AvailableSettings.ORDER_UPDATES, "true");
+            properties.putIfAbsent(AvailableSettings.BATCH_VERSIONED_DATA, "true");
+        };
+    }
+
+}
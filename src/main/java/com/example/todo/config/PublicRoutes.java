@@ -0,0 +1,57 @@
+package com.example.todo.config;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Set;
+
+@Component
+// 역할: 토큰 없이 호출하는 요청(헬스 체크, 가입, 로그인 등)을 판별하는 객체.
+//
+// - WebSecurityConfig에서는 이 요청들을 권한 검사 없이 허용하고,
+//   JwtAuthFilter에서는 토큰을 꺼내거나 파싱하지 않고 바로 통과시킨다.
+// - 모두 와일드카드가 없는 경로이므로 "메서드 경로" 문자열을 미리 만들어 두고 Set으로 찾는다.
+//   (요청마다 ant 패턴을 해석하지 않음)
+// - /api/auth/** 중에서도 토큰의 회원 정보를 사용하는 요청(promote, load-profile, logout, load-s3)은 포함하지 않는다.
+public class PublicRoutes implements RequestMatcher {
+
+    // 메서드와 상관없이 허용하는 경로
+    private static final Set<String> ANY_METHOD = Set.of(
+            "/" // 헬스 체크 (로드 밸런서)
+    );
+
+    // "메서드 경로"
+    private static final Set<String> ROUTES = Set.of(
+            key(HttpMethod.GET, "/api/auth/check"), // 이메일 중복 확인
+            key(HttpMethod.POST, "/api/auth"), // 회원 가입
+            key(HttpMethod.POST, "/api/auth/signin"), // 로그인
+            key(HttpMethod.POST, "/api/auth/refresh"), // 액세스 토큰 재발급
+            key(HttpMethod.GET, "/api/auth/kakaoLogin") // 카카오 로그인
+    );
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        String path = path(request);
+        return ANY_METHOD.contains(path) || ROUTES.contains(request.getMethod() + " " + path);
+    }
+
+    // 컨텍스트 경로를 뺀 요청 경로 (끝의 /는 무시)
+    private static String path(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        if (!contextPath.isEmpty() && uri.startsWith(contextPath)) {
+            uri = uri.substring(contextPath.length());
+        }
+        if (uri.length() > 1 && uri.endsWith("/")) {
+            uri = uri.substring(0, uri.length() - 1);
+        }
+        return uri.isEmpty() ? "/" : uri;
+    }
+
+    private static String key(HttpMethod method, String path) {
+        return method.name() + " " + path;
+    }
+
+}
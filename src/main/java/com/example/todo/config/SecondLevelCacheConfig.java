@@ -0,0 +1,64 @@
+package com.example.todo.config;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.ehcache.jsr107.EhcacheCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.time.Duration;
+
+// 하이버네이트 2차 캐시 설정 (JCache + Ehcache)
+// 캐시 영역마다 최대 개수와 만료 시간을 지정해서 메모리를 무한정 사용하지 않도록 한다.
+//
+// todo.user-cache.max-entries: 회원 캐시 최대 개수 (기본 10000)
+// todo.user-cache.ttl: 회원 캐시 만료 시간 (기본 30분)
+@Configuration
+public class SecondLevelCacheConfig {
+
+    // User 엔터티의 @Cache(region = ...)과 같은 이름
+    public static final String USER_REGION = "user";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${todo.user-cache.max-entries:10000}") long maxEntries,
+            @Value("${todo.user-cache.ttl:30m}") Duration ttl
+    ) {
+        CachingProvider provider = Caching.getCachingProvider(EhcacheCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+
+        if (cacheManager.getCache(USER_REGION) == null) {
+            cacheManager.createCache(USER_REGION, Eh107Configuration.fromEhcacheCacheConfiguration(
+                    CacheConfigurationBuilder
+                            .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries))
+                            .withExpiry(ExpiryPolicyBuilder.timeToLiveExpiration(ttl))
+            ));
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, "true");
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // 위에서 만들지 않은 영역은 기본 설정으로 생성 (@Cache를 추가했는데 설정을 빠뜨려도 기동은 되도록)
+            properties.putIfAbsent(ConfigSettings.MISSING_CACHE_STRATEGY, "create-warn");
+            // 관리자 통계 API에서 캐시 적중률을 보기 위해 통계 수집
+            properties.putIfAbsent(AvailableSettings.GENERATE_STATISTICS, "true");
+            // 통계를 켜면 세션마다 지표 로그가 남으므로 로그는 끔
+            properties.putIfAbsent(AvailableSettings.LOG_SESSION_METRICS, "false");
+        };
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.example.todo.config;
+
+import com.example.todo.datasource.ShardRoutingInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ShardRoutingInterceptor shardRoutingInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // 할 일 API는 로그인 한 회원의 샤드에서 처리
+        registry.addInterceptor(shardRoutingInterceptor)
+                .addPathPatterns("/api/todos/**");
+    }
+
+}
@@ -3,6 +3,7 @@ package com.example.todo.config;
 import com.example.todo.filter.JwtAuthFilter;
 import com.example.todo.filter.JwtExceptionFilter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -24,10 +25,13 @@ public class WebSecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
     private final JwtExceptionFilter jwtExceptionFilter;
+    private final PublicRoutes publicRoutes;
 
+    // auth.bcrypt-strength: BCrypt 비용 (기본 10, 1 올릴 때마다 해싱 시간이 두 배)
+    // 바꾸면 기존 회원의 비밀번호는 다음 로그인 때 새 비용으로 다시 해싱된다.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     // 시큐리티 설정
@@ -50,8 +54,10 @@ public class WebSecurityConfig {
                 .antMatchers(HttpMethod.PUT, "/api/auth/promote")
                 .authenticated()
                 .antMatchers("/api/auth/load-profile").authenticated() // GET 방식은 디폴트값이라 따로 지정해주지 앟아도 됨.
-                // '/api/auth'로 시작하는 요청과 '/'요청은 권한 검사 없이 허용하겠다.
-                .antMatchers("/", "/api/auth/**").permitAll()
+                // 헬스 체크, 가입, 로그인 등 토큰 없이 호출하는 요청 (JwtAuthFilter도 이 요청들은 건너뜀)
+                .requestMatchers(publicRoutes).permitAll()
+                // 나머지 '/api/auth'로 시작하는 요청도 권한 검사 없이 허용하겠다. (logout 등은 토큰이 있으면 회원 정보를 사용)
+                .antMatchers("/api/auth/**").permitAll()
                 // '/api/todos'라는 요청이 POST로 들어오고, Role 값이 ADMIN인 경우 권한 검사 없이 허용하겠다.
 //                .antMatchers(HttpMethod.POST, "/api/todos").hasRole("ADMIN").permitAll()
                 // 위에서 따로 설정하지 않은 나머지 요청들은 권한 검사가 필요하다.
@@ -0,0 +1,133 @@
+package com.example.todo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+// 읽기/쓰기 DataSource 분리와 할 일 샤딩 설정
+// replica나 추가 샤드가 설정된 경우에만 동작하고, 둘 다 없으면 기존처럼 DataSource 하나만 사용한다.
+//
+// spring.datasource.replica.url: jdbc:mysql://replica-host:3306/todo
+// spring.datasource.replica.username / password: 없으면 primary와 같은 계정
+// spring.datasource.replica.hikari.*: replica 커넥션 풀 설정 (primary는 기존 spring.datasource.hikari.*)
+// spring.datasource.replica.lag-window: 쓰기 후 그 회원의 읽기를 primary로 보낼 시간 (기본 3초)
+// todo.sharding.shards[n].*: 추가 샤드 설정 (ShardingProperties 참고)
+//
+// 둘 다 설정하면 0번 샤드(기존 DB)만 읽기/쓰기를 분리하고, 추가 샤드는 primary 하나씩만 사용한다.
+@Configuration
+@Slf4j
+@ConditionalOnExpression("'${spring.datasource.replica.url:}' != '' or '${todo.sharding.shards[0].url:}' != ''")
+public class DataSourceRoutingConfig implements DisposableBean {
+
+    // 빈으로 등록하지 않은 커넥션 풀 (종료할 때 직접 닫음)
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    @ConditionalOnProperty(name = "spring.datasource.replica.url")
+    public ReplicaLagGuard replicaLagGuard(
+            @Value("${spring.datasource.replica.lag-window:3s}") Duration lagWindow,
+            @Value("${spring.datasource.replica.lag-max-users:100000}") int maxUsers
+    ) {
+        return new ReplicaLagGuard(lagWindow, maxUsers);
+    }
+
+    // 애플리케이션이 사용하는 DataSource는 이것 하나뿐이다.
+    // (primary, replica, 샤드 풀을 빈으로 따로 등록하면 자동 설정과 p6spy가 DataSource를 여러 개로 인식함)
+    @Bean
+    public DataSource dataSource(
+            DataSourceProperties primaryProperties,
+            Environment environment,
+            ObjectProvider<ReplicaLagGuard> replicaLagGuard,
+            ShardingProperties shardingProperties,
+            @Value("${spring.datasource.replica.url:}") String replicaUrl,
+            @Value("${spring.datasource.replica.username:${spring.datasource.username:}}") String replicaUsername,
+            @Value("${spring.datasource.replica.password:${spring.datasource.password:}}") String replicaPassword
+    ) {
+        Binder binder = Binder.get(environment);
+
+        HikariDataSource primary = primaryProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        primary.setPoolName("primary");
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        pools.add(primary);
+
+        // 0번 샤드 (replica가 있다면 읽기/쓰기 분리)
+        DataSource home = primary;
+        if (!replicaUrl.isBlank()) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replicaUrl)
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build();
+            replica.setPoolName("replica");
+            replica.setReadOnly(true);
+            binder.bind("spring.datasource.replica.hikari", Bindable.ofInstance(replica));
+            pools.add(replica);
+            log.info("읽기/쓰기 DataSource 분리 사용 - replica: {}", replicaUrl);
+
+            home = new ReplicaRoutingDataSource(primary, replica, replicaLagGuard.getObject());
+        }
+
+        List<ShardingProperties.Shard> extraShards = shardingProperties.getShards();
+        if (extraShards.isEmpty()) {
+            return new LazyConnectionDataSourceProxy(home);
+        }
+
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(home);
+        for (int i = 0; i < extraShards.size(); i++) {
+            ShardingProperties.Shard shard = extraShards.get(i);
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(shard.getUrl())
+                    .username(shard.getUsername() != null ? shard.getUsername() : primaryProperties.getUsername())
+                    .password(shard.getPassword() != null ? shard.getPassword() : primaryProperties.getPassword())
+                    .build();
+            pool.setPoolName("shard-" + (i + 1));
+            binder.bind("todo.sharding.shards[" + i + "].hikari", Bindable.ofInstance(pool));
+            pools.add(pool);
+            shards.add(pool);
+            log.info("할 일 샤드 {} 사용 - {}", i + 1, shard.getUrl());
+        }
+
+        return new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shards));
+    }
+
+    // 하이버네이트는 기본적으로 요청이 끝날 때까지(OSIV) 처음 얻은 커넥션을 계속 사용하므로,
+    // 같은 요청 안에서 읽기 전용 트랜잭션 다음에 쓰기 트랜잭션이 오면 replica에 쓰게 된다.
+    // 트랜잭션이 끝날 때마다 커넥션을 반납해서 트랜잭션마다 다시 라우팅되도록 설정.
+    // (샤드는 요청 안에서 바뀌지 않지만, 커넥션을 짧게 잡는 편이 샤드가 많을 때 풀을 덜 차지함)
+    @Bean
+    public HibernatePropertiesCustomizer connectionReleaseCustomizer() {
+        return properties -> properties.putIfAbsent(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+}
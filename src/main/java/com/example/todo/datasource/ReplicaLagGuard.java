@@ -0,0 +1,41 @@
+package com.example.todo.datasource;
+
+import com.example.todo.cache.BoundedCache;
+import com.example.todo.cache.CacheStats;
+import com.example.todo.todoapi.event.TodoChangedEvent;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+
+// 복제 지연 대비: 최근에 쓰기를 한 회원을 기록해 두고, 일정 시간 동안은 그 회원의 읽기도 primary로 보낸다.
+// (방금 등록한 할 일이 replica에 아직 복제되지 않아 목록에서 빠지는 문제를 막기 위함)
+// 기록은 지정한 시간이 지나면 자동으로 만료된다.
+public class ReplicaLagGuard {
+
+    private final BoundedCache<String, Long> recentWrites;
+
+    public ReplicaLagGuard(Duration window, int maxUsers) {
+        this.recentWrites = new BoundedCache<>("replica-lag", maxUsers, window);
+    }
+
+    // 회원이 쓰기를 했음을 기록 (이미 기록이 있다면 지금부터 다시 계산)
+    public void recordWrite(String userId) {
+        recentWrites.put(userId, System.currentTimeMillis());
+    }
+
+    // 최근에 쓰기를 해서 primary에서 읽어야 하는 회원인지 확인
+    public boolean mustUsePrimary(String userId) {
+        return recentWrites.getIfPresent(userId) != null;
+    }
+
+    // 할 일 변경은 요청 스레드가 아닌 곳(주기적인 반영 작업 등)에서도 일어나므로 이벤트로도 기록
+    @EventListener
+    public void onTodoChanged(TodoChangedEvent event) {
+        recordWrite(event.getUserId());
+    }
+
+    public CacheStats stats() {
+        return recentWrites.stats();
+    }
+
+}
@@ -0,0 +1,73 @@
+package com.example.todo.datasource;
+
+import com.example.todo.auth.TokenUserInfo;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * 읽기 전용 트랜잭션은 replica로, 나머지는 primary로 보내는 DataSource
+ *
+ * - 트랜잭션이 시작된 뒤에 커넥션을 얻어야 읽기 전용 여부를 알 수 있으므로
+ *   반드시 LazyConnectionDataSourceProxy로 감싸서 사용해야 한다.
+ * - 로그인 한 회원이 최근에 쓰기를 했다면 읽기 전용이라도 primary로 보낸다. (ReplicaLagGuard)
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ReplicaLagGuard replicaLagGuard;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagGuard replicaLagGuard) {
+        this.replicaLagGuard = replicaLagGuard;
+        setTargetDataSources(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String userId = currentUserId();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null) {
+                recordWrite(userId);
+            }
+            return PRIMARY;
+        }
+
+        if (userId != null && replicaLagGuard.mustUsePrimary(userId)) {
+            return PRIMARY;
+        }
+        return REPLICA;
+    }
+
+    // 복제 지연은 커밋 시점부터 시작되므로 트랜잭션이 끝날 때 한 번 더 기록
+    private void recordWrite(String userId) {
+        replicaLagGuard.recordWrite(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    replicaLagGuard.recordWrite(userId);
+                }
+            });
+        }
+    }
+
+    // JwtAuthFilter에서 등록한 인증 정보에서 회원 id를 꺼냄 (로그인 전이라면 null)
+    private String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof TokenUserInfo)) {
+            return null;
+        }
+        return ((TokenUserInfo) authentication.getPrincipal()).getUserId();
+    }
+
+}
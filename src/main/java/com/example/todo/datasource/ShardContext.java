@@ -0,0 +1,55 @@
+package com.example.todo.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * 현재 스레드가 사용할 샤드 번호를 보관하는 객체
+ *
+ * - 할 일 API 요청은 ShardRoutingInterceptor가 로그인 한 회원의 샤드를 지정한다.
+ * - 주기적인 작업처럼 요청 밖에서 할 일 테이블을 다룬다면 callOn/runOn으로 샤드를 지정해야 한다.
+ * - 지정하지 않으면 기본 샤드(0번, 회원 테이블이 있는 DB)를 사용한다.
+ * - 커넥션을 얻는 시점(트랜잭션의 첫 쿼리)에 샤드가 결정되므로, 트랜잭션 도중에 바꾸면 안 된다.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    // 지정된 샤드 번호 (지정되지 않았다면 null)
+    public static Integer current() {
+        return CURRENT.get();
+    }
+
+    public static void set(Integer shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    // 지정한 샤드에서 작업을 실행하고, 끝나면 원래 샤드로 되돌림
+    public static <T> T callOn(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            set(previous);
+        }
+    }
+
+    public static void runOn(int shard, Runnable action) {
+        callOn(shard, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+}
@@ -0,0 +1,187 @@
+package com.example.todo.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+@Slf4j
+// 역할: 회원의 할 일이 어느 샤드에 있는지 알려주는 객체 (샤드 배정표)
+//
+// - 기본적으로 회원 id의 해시로 샤드를 정한다. (DB 조회 없음)
+// - 해시와 다른 샤드에 있는 회원(다른 샤드로 옮긴 회원, 샤딩 전부터 있던 회원)만
+//   0번 샤드의 tbl_shard_directory에 기록하고, 메모리에 올려서 사용한다.
+// - 다른 서버에서 옮긴 회원도 반영되도록 배정표를 주기적으로 다시 읽는다.
+// - 샤딩하지 않는다면(샤드 1개) 항상 0번을 리턴하고 DB에 접근하지 않는다.
+public class ShardDirectory {
+
+    // 회원 테이블 등 할 일 외의 테이블이 있는 샤드
+    public static final int HOME_SHARD = 0;
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM tbl_shard_directory";
+    private static final String CREATE_SQL = "CREATE TABLE tbl_shard_directory (" +
+            " user_id VARCHAR(32) NOT NULL PRIMARY KEY, shard INT NOT NULL)";
+    private static final String SELECT_SQL = "SELECT user_id, shard FROM tbl_shard_directory";
+    private static final String INSERT_SQL = "INSERT INTO tbl_shard_directory (user_id, shard) VALUES (?, ?)";
+    private static final String UPDATE_SQL = "UPDATE tbl_shard_directory SET shard = ? WHERE user_id = ?";
+    private static final String DELETE_SQL = "DELETE FROM tbl_shard_directory WHERE user_id = ?";
+
+    // 샤딩 전부터 0번 샤드에 할 일이 있던 회원
+    private static final String EXISTING_USERS_SQL = "SELECT user_id FROM tbl_todo" +
+            " UNION SELECT user_id FROM tbl_todo_counter" +
+            " UNION SELECT user_id FROM tbl_todo_archive";
+
+    private final int shardCount;
+    private final JdbcTemplate jdbcTemplate;
+
+    // 회원 id -> 샤드 번호 (해시와 다른 회원만)
+    // 읽기가 대부분이므로 바꿀 때마다 새 맵으로 교체한다.
+    private volatile Map<String, Integer> assignments = Collections.emptyMap();
+
+    public ShardDirectory(int shardCount, JdbcTemplate jdbcTemplate) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("샤드 수는 1 이상이어야 합니다.");
+        }
+        this.shardCount = shardCount;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // 샤딩하지 않는 경우
+    public static ShardDirectory single() {
+        return new ShardDirectory(1, null);
+    }
+
+    /**
+     * 배정표 테이블을 준비하고 메모리에 올림
+     * 처음 샤딩을 켠 경우(테이블이 없던 경우)에는 기존 회원을 모두 0번 샤드에 고정한다.
+     * (해시로 다른 샤드가 정해져도 기존 할 일은 0번 샤드에 있으므로)
+     */
+    public void initialize() {
+        if (isSingle()) return;
+
+        ShardContext.runOn(HOME_SHARD, () -> {
+            if (!tableExists()) {
+                jdbcTemplate.execute(CREATE_SQL);
+                int pinned = pinExistingUsers();
+                log.info("샤드 배정표 생성 - 0번 샤드에 고정한 기존 회원: {}", pinned);
+            }
+        });
+        reload();
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    // 모든 샤드 번호 (주기적인 작업이 샤드마다 실행할 때 사용)
+    public List<Integer> shards() {
+        return IntStream.range(0, shardCount).boxed().collect(Collectors.toList());
+    }
+
+    // 회원의 할 일이 있는 샤드
+    public int shardOf(String userId) {
+        if (isSingle()) return HOME_SHARD;
+        Integer assigned = assignments.get(userId);
+        return assigned != null ? assigned : hashShard(userId);
+    }
+
+    // 배정표에 기록이 없을 때 사용할 샤드 (회원 id의 CRC32 해시)
+    public int hashShard(String userId) {
+        CRC32 crc = new CRC32();
+        crc.update(userId.getBytes(StandardCharsets.UTF_8));
+        return (int) (crc.getValue() % shardCount);
+    }
+
+    /**
+     * 회원의 샤드를 변경 (0번 샤드의 배정표와 메모리에 함께 반영)
+     * 할 일을 옮기는 것은 TodoResharder가 담당하고, 이 메서드는 배정만 바꾼다.
+     * @throws IllegalArgumentException - 없는 샤드 번호인 경우
+     */
+    public synchronized void assign(String userId, int shard) {
+        if (shard < 0 || shard >= shardCount) {
+            throw new IllegalArgumentException(
+                    String.format("샤드 번호는 0 ~ %d 사이여야 합니다.", shardCount - 1));
+        }
+        if (isSingle()) return;
+
+        boolean byHash = shard == hashShard(userId);
+        ShardContext.runOn(HOME_SHARD, () -> {
+            if (byHash) {
+                // 해시와 같다면 기록할 필요가 없음
+                jdbcTemplate.update(DELETE_SQL, userId);
+            } else if (jdbcTemplate.update(UPDATE_SQL, shard, userId) == 0) {
+                jdbcTemplate.update(INSERT_SQL, userId, shard);
+            }
+        });
+
+        Map<String, Integer> copy = new HashMap<>(assignments);
+        if (byHash) {
+            copy.remove(userId);
+        } else {
+            copy.put(userId, shard);
+        }
+        assignments = Collections.unmodifiableMap(copy);
+    }
+
+    // 배정표를 다시 읽음 (다른 서버에서 옮긴 회원 반영)
+    // assign과 겹치면 먼저 읽은 예전 배정표로 덮어쓸 수 있으므로 함께 동기화한다.
+    @Scheduled(fixedDelayString = "${todo.sharding.directory-refresh-millis:5000}")
+    public synchronized void reload() {
+        if (isSingle()) return;
+
+        try {
+            Map<String, Integer> loaded = new HashMap<>();
+            ShardContext.runOn(HOME_SHARD, () -> jdbcTemplate.query(SELECT_SQL,
+                    rs -> {
+                        loaded.put(rs.getString("user_id"), rs.getInt("shard"));
+                    }));
+            assignments = Collections.unmodifiableMap(loaded);
+        } catch (DataAccessException e) {
+            // 이전에 읽은 배정표를 계속 사용
+            log.error("샤드 배정표 읽기 실패", e);
+        }
+    }
+
+    // 해시와 다른 샤드에 배정된 회원 수
+    public int assignedCount() {
+        return assignments.size();
+    }
+
+    private boolean isSingle() {
+        return shardCount == 1;
+    }
+
+    private boolean tableExists() {
+        try {
+            jdbcTemplate.queryForObject(COUNT_SQL, Long.class);
+            return true;
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+
+    // 해시로는 0번이 아닌 샤드가 정해지는 기존 회원만 기록
+    private int pinExistingUsers() {
+        List<Object[]> args = new ArrayList<>();
+        for (String userId : jdbcTemplate.queryForList(EXISTING_USERS_SQL, String.class)) {
+            if (hashShard(userId) != HOME_SHARD) {
+                args.add(new Object[]{userId, HOME_SHARD});
+            }
+        }
+        if (!args.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, args);
+        }
+        return args.size();
+    }
+
+}
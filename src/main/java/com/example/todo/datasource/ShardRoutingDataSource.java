@@ -0,0 +1,47 @@
+package com.example.todo.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 현재 스레드에 지정된 샤드(ShardContext)의 DataSource로 보내는 DataSource
+ *
+ * - 샤드가 지정되지 않았다면 0번 샤드를 사용한다. (회원 등 할 일 외의 테이블은 0번 샤드에만 있음)
+ * - 트랜잭션이 시작된 뒤에 커넥션을 얻어야 하므로 반드시 LazyConnectionDataSourceProxy로 감싸서 사용해야 한다.
+ * - 각 샤드는 ReplicaRoutingDataSource처럼 다시 라우팅하는 DataSource여도 된다.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final int shardCount;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("샤드가 하나 이상 있어야 합니다.");
+        }
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        this.shardCount = shards.size();
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(ShardDirectory.HOME_SHARD));
+        // 없는 샤드 번호라면 기본 샤드에 쓰지 않고 바로 실패
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardContext.current();
+        return shard == null ? ShardDirectory.HOME_SHARD : shard;
+    }
+
+}
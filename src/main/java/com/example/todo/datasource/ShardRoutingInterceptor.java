@@ -0,0 +1,45 @@
+package com.example.todo.datasource;
+
+import com.example.todo.auth.TokenUserInfo;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+// 할 일 API 요청마다 로그인 한 회원의 샤드를 지정하는 인터셉터
+// 할 일 쿼리는 모두 한 회원으로 범위가 정해지므로, 요청 전체를 그 회원의 샤드에서 처리한다.
+// (할 일 API에서는 회원 테이블을 조회하지 않아야 함 -> 회원 엔터티는 getReferenceById로 참조만)
+@Component
+@RequiredArgsConstructor
+public class ShardRoutingInterceptor implements AsyncHandlerInterceptor {
+
+    private final ShardDirectory shardDirectory;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof TokenUserInfo) {
+            String userId = ((TokenUserInfo) authentication.getPrincipal()).getUserId();
+            ShardContext.set(shardDirectory.shardOf(userId));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
+                                Object handler, Exception ex) {
+        ShardContext.clear();
+    }
+
+    // 비동기 응답(SSE, 내보내기)은 afterCompletion 없이 요청 스레드를 반납하므로 여기서도 지움
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        ShardContext.clear();
+    }
+
+}
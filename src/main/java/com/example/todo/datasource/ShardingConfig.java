@@ -0,0 +1,31 @@
+package com.example.todo.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+// 샤드 배정표 설정
+// 샤드를 추가하지 않았다면 모든 회원이 0번 샤드(기존 DataSource)를 사용한다.
+// 추가한 샤드의 DataSource 구성은 DataSourceRoutingConfig 참고.
+@Configuration
+@Slf4j
+public class ShardingConfig {
+
+    // 처음 샤딩을 켤 때 기존 회원을 조회하므로, 하이버네이트가 테이블을 만든 뒤에 생성
+    @Bean
+    @DependsOn("entityManagerFactory")
+    public ShardDirectory shardDirectory(ShardingProperties shardingProperties, JdbcTemplate jdbcTemplate) {
+        if (shardingProperties.getShards().isEmpty()) {
+            return ShardDirectory.single();
+        }
+
+        ShardDirectory directory = new ShardDirectory(shardingProperties.shardCount(), jdbcTemplate);
+        directory.initialize();
+        log.info("할 일 샤딩 사용 - 샤드 수: {}, 배정표에 기록된 회원: {}",
+                directory.shardCount(), directory.assignedCount());
+        return directory;
+    }
+
+}
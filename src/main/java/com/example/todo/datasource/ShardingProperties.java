@@ -0,0 +1,40 @@
+package com.example.todo.datasource;
+
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConfigurationProperties(prefix = "todo.sharding")
+@Getter @Setter @ToString
+// 할 일 저장소 샤딩 설정
+// 0번 샤드는 기존 spring.datasource 이고, 여기에는 추가할 샤드만 적는다. (비어 있으면 샤딩하지 않음)
+// ex) todo.sharding.shards[0].url=jdbc:mysql://todo-shard1:3306/todo   -> 1번 샤드
+//     todo.sharding.shards[0].hikari.maximum-pool-size=20
+//     todo.sharding.shards[1].url=jdbc:mysql://todo-shard2:3306/todo   -> 2번 샤드
+// 추가한 샤드에는 tbl_todo, tbl_todo_archive, tbl_todo_counter 테이블을 미리 만들어 두어야 한다.
+//
+// todo.sharding.directory-refresh-millis: 샤드 배정표를 다시 읽는 주기 (기본 5초, ShardDirectory)
+// todo.sharding.reshard-grace-millis: 회원을 옮길 때 배정을 바꾼 뒤 기다리는 시간 (기본 15초, TodoResharder)
+public class ShardingProperties {
+
+    private List<Shard> shards = new ArrayList<>();
+
+    // 전체 샤드 수 (0번 포함)
+    public int shardCount() {
+        return shards.size() + 1;
+    }
+
+    @Getter @Setter @ToString(exclude = "password")
+    public static class Shard {
+        private String url;
+        private String username; // 없으면 spring.datasource.username
+        private String password; // 없으면 spring.datasource.password
+    }
+
+}
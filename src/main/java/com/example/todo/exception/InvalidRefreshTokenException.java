@@ -0,0 +1,14 @@
+package com.example.todo.exception;
+
+import lombok.NoArgsConstructor;
+
+// 리프레시 토큰이 없거나, 만료되었거나, 이미 사용(재사용)된 경우 발생하는 예외
+@NoArgsConstructor
+public class InvalidRefreshTokenException
+    extends RuntimeException {
+
+    // 기본 생성자 + 에러메서지를 받는 생성자
+    public InvalidRefreshTokenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.todo.exception;
+
+import lombok.Getter;
+
+// 비밀번호 해싱 작업이 밀려서 지금은 처리할 수 없을 때 발생하는 예외 (503 + Retry-After로 응답)
+@Getter
+public class PasswordHashingBusyException
+    extends RuntimeException {
+
+    private final long retryAfterSeconds; // 다시 시도할 때까지 기다릴 시간
+
+    public PasswordHashingBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
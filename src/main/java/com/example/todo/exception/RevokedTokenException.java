@@ -0,0 +1,12 @@
+package com.example.todo.exception;
+
+import io.jsonwebtoken.JwtException;
+
+// 서명은 올바르지만 폐기된 토큰으로 요청한 경우 (JwtExceptionFilter에서 401로 응답)
+public class RevokedTokenException
+    extends JwtException {
+
+    public RevokedTokenException(String message) {
+        super(message);
+    }
+}
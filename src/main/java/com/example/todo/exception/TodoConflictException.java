@@ -0,0 +1,14 @@
+package com.example.todo.exception;
+
+import lombok.NoArgsConstructor;
+
+// 클라이언트가 알고 있는 버전 이후에 다른 곳에서 할 일이 먼저 수정되었을 때 발생하는 예외
+@NoArgsConstructor
+public class TodoConflictException
+    extends RuntimeException {
+
+    // 기본 생성자 + 에러메서지를 받는 생성자
+    public TodoConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.todo.exception;
+
+import lombok.NoArgsConstructor;
+
+// 할 일이 존재하지 않거나, 로그인 한 회원의 할 일이 아닐 때 발생하는 예외
+@NoArgsConstructor
+public class TodoNotFoundException
+    extends RuntimeException {
+
+    // 기본 생성자 + 에러메서지를 받는 생성자
+    public TodoNotFoundException(String message) {
+        super(message);
+    }
+}
@@ -1,36 +1,74 @@
 package com.example.todo.todoapi.api;
 
 import com.example.todo.auth.TokenUserInfo;
+import com.example.todo.datasource.ShardContext;
+import com.example.todo.exception.TodoConflictException;
+import com.example.todo.exception.TodoNotFoundException;
+import com.example.todo.todoapi.dto.request.TodoBulkCreateRequestDTO;
+import com.example.todo.todoapi.dto.request.TodoBulkDeleteRequestDTO;
+import com.example.todo.todoapi.dto.request.TodoBulkModifyRequestDTO;
 import com.example.todo.todoapi.dto.request.TodoCreateRequestDTO;
 import com.example.todo.todoapi.dto.request.TodoModifyRequestDTO;
+import com.example.todo.todoapi.dto.response.TodoBulkResponseDTO;
+import com.example.todo.todoapi.dto.response.TodoChangeType;
+import com.example.todo.todoapi.dto.response.TodoDeltaResponseDTO;
+import com.example.todo.todoapi.dto.response.TodoDetailResponseDTO;
+import com.example.todo.todoapi.dto.response.TodoImportResponseDTO;
 import com.example.todo.todoapi.dto.response.TodoListResponseDTO;
 import com.example.todo.todoapi.service.TodoService;
+import com.example.todo.todoapi.service.TodoToggleBuffer;
+import com.example.todo.todoapi.service.TodoTransferService;
+import com.example.todo.todoapi.service.TodoVersionTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.List;
 
 @RestController
 @Slf4j
 @RequiredArgsConstructor
 @RequestMapping("/api/todos")
-@CrossOrigin
+// ETag 헤더는 기본적으로 브라우저 스크립트에서 읽을 수 없으므로 노출 설정
+@CrossOrigin(exposedHeaders = HttpHeaders.ETAG)
 public class TodoController {
 
+    // 변경된 할 일 한 건만 응답받고 싶을 때 사용하는 헤더/파라미터 (값: delta)
+    // 지정하지 않으면 기존처럼 목록 전체를 응답한다.
+    private static final String RESPONSE_MODE_HEADER = "X-Response-Mode";
+    private static final String RESPONSE_MODE_PARAM = "response";
+    private static final String DELTA_MODE = "delta";
+
+    // 완료 여부 토글을 모아서 나중에 반영해도 될 때 사용하는 헤더/파라미터 (값: deferred)
+    // 버퍼에 저장되면 바로 202 Accepted로 응답하고, 버퍼가 가득 찼다면 기존처럼 바로 반영한다.
+    private static final String WRITE_MODE_HEADER = "X-Write-Mode";
+    private static final String WRITE_MODE_PARAM = "write";
+    private static final String DEFERRED_MODE = "deferred";
+
     private final TodoService todoService;
+    private final TodoVersionTracker todoVersionTracker;
+    private final TodoTransferService todoTransferService;
+    private final TodoToggleBuffer todoToggleBuffer;
 
     // 할 일 등록 요청
     @PostMapping
     public ResponseEntity<?> createTodo(
             @AuthenticationPrincipal TokenUserInfo userInfo,
             @Validated @RequestBody TodoCreateRequestDTO requestDTO,
-            BindingResult result
+            BindingResult result,
+            HttpServletRequest request
     ) {
         if(result.hasErrors()) {
             log.warn("DTO 검증 에러 발생: {}", result.getFieldError());
@@ -40,6 +78,12 @@ public class TodoController {
         }
 
         try {
+            if(isDeltaMode(request)) {
+                TodoDetailResponseDTO created = todoService.createOne(requestDTO, userInfo);
+                return ResponseEntity.ok()
+                        .body(toDelta(TodoChangeType.CREATED, created, userInfo));
+            }
+
             TodoListResponseDTO responseDTO = todoService.create(requestDTO, userInfo);
             return ResponseEntity
                     .ok()
@@ -65,19 +109,149 @@ public class TodoController {
     public ResponseEntity<?> retrieveTodoList(
             // JwtAuthFilter에서 시큐리티에게 전역적으로 사용할 수 있는 인증 정보를 등록해 놓았기 때문에
             // @AuthenticationPrincipal을 통해 토큰에 인증된 사용자 정보를 불러올 수 있다.
-            @AuthenticationPrincipal TokenUserInfo userInfo
+            @AuthenticationPrincipal TokenUserInfo userInfo,
+            // 둘 다 없으면 기존처럼 전체 목록을, 하나라도 있으면 한 페이지만 응답
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest webRequest
             ) {
         log.info("/api/todos GET request");
-        TodoListResponseDTO responseDTO = todoService.retrieve(userInfo.getUserId());
 
-        return ResponseEntity.ok().body(responseDTO);
+        // 목록 버전으로 ETag를 만들어서, 클라이언트가 가진 목록과 같다면 목록 조회 없이 304를 응답
+        // (조회 전에 버전을 읽기 때문에, 조회 도중 변경이 생기면 다음 요청에서 새로 받아가게 됨)
+        // 이 서버의 토글 버퍼에 반영 대기 중인 값이 있다면 응답이 DB와 다르므로 ETag 없이 응답한다.
+        String userId = userInfo.getUserId();
+        String eTag = todoToggleBuffer.hasPending(userId) ? null : listETag(userId, cursor, size);
+        if(eTag != null && webRequest.checkNotModified(eTag)) {
+            log.debug("할 일 목록 변경 없음 - 304 응답");
+            return null;
+        }
+
+        try {
+            TodoListResponseDTO responseDTO = (cursor == null && size == null)
+                    ? todoService.retrieve(userId)
+                    : todoService.retrievePage(userId, cursor, size);
+            // 조회하는 사이에 대기 중인 값이 생겼다면 ETag를 붙이지 않음
+            if(todoToggleBuffer.hasPending(userId)) eTag = null;
+            return listResponse(eTag).body(responseDTO);
+        } catch (IllegalArgumentException e) {
+            log.warn("잘못된 커서 요청 - cursor: {}", cursor);
+            return ResponseEntity.badRequest()
+                    .body(TodoListResponseDTO.builder()
+                            .error(e.getMessage())
+                            .build());
+        }
+    }
+
+    // 보관된 할 일 목록 요청 (예: /api/todos/archive?size=20&cursor=...)
+    @GetMapping("/archive")
+    public ResponseEntity<?> retrieveArchivedTodos(
+            @AuthenticationPrincipal TokenUserInfo userInfo,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        log.info("/api/todos/archive GET request");
+
+        try {
+            TodoListResponseDTO responseDTO
+                    = todoService.retrieveArchivePage(userInfo.getUserId(), cursor, size);
+            return ResponseEntity.ok().body(responseDTO);
+        } catch (IllegalArgumentException e) {
+            log.warn("잘못된 커서 요청 - cursor: {}", cursor);
+            return ResponseEntity.badRequest()
+                    .body(TodoListResponseDTO.builder()
+                            .error(e.getMessage())
+                            .build());
+        }
+    }
+
+    // 할 일 제목 검색 요청 (예: /api/todos/search?q=장보기 우유)
+    @GetMapping("/search")
+    public ResponseEntity<?> searchTodos(
+            @AuthenticationPrincipal TokenUserInfo userInfo,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer size
+    ) {
+        log.info("/api/todos/search GET request! - q: {}", q);
+
+        if(q == null || q.isBlank()) {
+            return ResponseEntity.badRequest()
+                    .body(TodoListResponseDTO.builder()
+                            .error("검색어를 입력하세요.")
+                            .build());
+        }
+
+        try {
+            return ResponseEntity.ok()
+                    .body(todoService.search(userInfo.getUserId(), q, size));
+        } catch (RuntimeException e) {
+            return ResponseEntity
+                    .internalServerError()
+                    .body(TodoListResponseDTO
+                            .builder()
+                            .error(e.getMessage())
+                            .build());
+        }
+    }
+
+    // 할 일 전체 내보내기 요청 (NDJSON: 한 줄에 할 일 하나)
+    // 목록을 메모리에 모으지 않고 DB에서 읽는 대로 응답에 바로 쓴다.
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportTodos(
+            @AuthenticationPrincipal TokenUserInfo userInfo
+    ) {
+        log.info("/api/todos/export GET request!");
+
+        String userId = userInfo.getUserId();
+        // 응답은 다른 스레드에서 쓰므로 요청 스레드에 지정된 샤드를 넘겨줌
+        Integer shard = ShardContext.current();
+        StreamingResponseBody body = out -> {
+            ShardContext.set(shard);
+            try {
+                todoTransferService.export(userId, out);
+            } finally {
+                ShardContext.clear();
+            }
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"todos.ndjson\"")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    // 할 일 가져오기 요청 (내보내기로 받은 NDJSON을 그대로 body에 담아서 보냄)
+    @PostMapping("/import")
+    public ResponseEntity<?> importTodos(
+            @AuthenticationPrincipal TokenUserInfo userInfo,
+            HttpServletRequest request
+    ) {
+        log.info("/api/todos/import POST request!");
+
+        try {
+            TodoImportResponseDTO responseDTO
+                    = todoTransferService.importTodos(userInfo, request.getInputStream());
+            if(responseDTO.getError() != null) {
+                log.warn("할 일 가져오기 중단: {}", responseDTO.getError());
+                return ResponseEntity.badRequest().body(responseDTO);
+            }
+            return ResponseEntity.ok().body(responseDTO);
+        } catch (IOException | RuntimeException e) {
+            log.error("할 일 가져오기 실패", e);
+            return ResponseEntity
+                    .internalServerError()
+                    .body(TodoImportResponseDTO.builder()
+                            .error(e.getMessage())
+                            .build());
+        }
     }
 
     // 할 일 삭제 요청
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteTodo(
             @AuthenticationPrincipal TokenUserInfo userInfo,
-            @PathVariable("id") String todoId
+            @PathVariable("id") String todoId,
+            HttpServletRequest request
     ) {
         log.info("/api/todos/{} DELETE request!", todoId);
 
@@ -91,8 +265,19 @@ public class TodoController {
         }
 
         try {
+            if(isDeltaMode(request)) {
+                TodoDetailResponseDTO deleted = todoService.deleteOne(todoId, userInfo.getUserId());
+                return ResponseEntity.ok()
+                        .body(toDelta(TodoChangeType.DELETED, deleted, userInfo));
+            }
+
             TodoListResponseDTO responseDTO = todoService.delete(todoId, userInfo.getUserId());
             return ResponseEntity.ok().body(responseDTO);
+        } catch (TodoNotFoundException e) {
+            // 없는 할 일이거나 다른 회원의 할 일
+            log.warn(e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(TodoListResponseDTO.builder().error(e.getMessage()).build());
         } catch (Exception e) {
             return ResponseEntity
                     .internalServerError().body(TodoListResponseDTO.builder().error(e.getMessage()).build());
@@ -101,22 +286,56 @@ public class TodoController {
 
     // 할 일 수정하기
     @RequestMapping(method = {RequestMethod.PATCH, RequestMethod.PUT})
+    // 요청 body의 version 대신 If-Match 헤더로 버전을 보내도 된다. (예: If-Match: "3")
     public ResponseEntity<?> updateTodo(
             @AuthenticationPrincipal TokenUserInfo userInfo,
             @Validated @RequestBody TodoModifyRequestDTO requestDTO,
             BindingResult result,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             HttpServletRequest request
     ) {
         if(result.hasErrors()) {
             return ResponseEntity.badRequest().body(result.getFieldError());
         }
 
+        if(requestDTO.getVersion() == null && ifMatch != null) {
+            Long version = parseVersion(ifMatch);
+            if(version == null) {
+                return ResponseEntity.badRequest().body("If-Match 헤더의 버전 형식이 올바르지 않습니다.");
+            }
+            requestDTO.setVersion(version);
+        }
+
         log.info("/api/todos {} request!", request.getMethod());
         log.info("modifying dto: {}", requestDTO);
 
         try {
+            if(isDeferredMode(request)) {
+                TodoDetailResponseDTO accepted = todoService.updateDeferred(requestDTO, userInfo.getUserId());
+                if(accepted != null) {
+                    return ResponseEntity.status(HttpStatus.ACCEPTED)
+                            .body(toDelta(TodoChangeType.UPDATED, accepted, userInfo));
+                }
+            }
+
+            if(isDeltaMode(request)) {
+                TodoDetailResponseDTO updated = todoService.updateOne(requestDTO, userInfo.getUserId());
+                return ResponseEntity.ok()
+                        .body(toDelta(TodoChangeType.UPDATED, updated, userInfo));
+            }
+
             TodoListResponseDTO responseDTO = todoService.update(requestDTO, userInfo.getUserId());
             return ResponseEntity.ok().body(responseDTO);
+        } catch (TodoNotFoundException e) {
+            // 없는 할 일이거나 다른 회원의 할 일
+            log.warn(e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(TodoListResponseDTO.builder().error(e.getMessage()).build());
+        } catch (TodoConflictException e) {
+            // 클라이언트가 알고 있는 버전 이후에 다른 곳에서 먼저 수정됨
+            log.warn(e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(TodoListResponseDTO.builder().error(e.getMessage()).build());
         } catch (RuntimeException e) {
             return ResponseEntity
                     .internalServerError()
@@ -129,17 +348,231 @@ public class TodoController {
 
     }
 
+    // 할 일 일괄 등록 요청
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createTodos(
+            @AuthenticationPrincipal TokenUserInfo userInfo,
+            @Validated @RequestBody TodoBulkCreateRequestDTO requestDTO,
+            BindingResult result,
+            HttpServletRequest request
+    ) {
+        if(result.hasErrors()) {
+            log.warn("DTO 검증 에러 발생: {}", result.getFieldError());
+            return ResponseEntity
+                    .badRequest()
+                    .body(result.getFieldError());
+        }
 
+        log.info("/api/todos/bulk POST request! - size: {}", requestDTO.getTodos().size());
 
+        try {
+            List<TodoDetailResponseDTO> created
+                    = todoService.createAll(requestDTO.getTodos(), userInfo);
+            return bulkResponse(created, userInfo, request);
+        } catch (IllegalStateException e) {
+            // 권한 때문에 발생한 예외
+            log.warn(e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(e.getMessage());
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            return ResponseEntity
+                    .internalServerError()
+                    .body(TodoListResponseDTO
+                            .builder()
+                            .error(e.getMessage())
+                            .build());
+        }
+    }
 
-}
+    // 할 일 일괄 수정 요청 (완료 여부 토글)
+    @PatchMapping("/bulk")
+    public ResponseEntity<?> updateTodos(
+            @AuthenticationPrincipal TokenUserInfo userInfo,
+            @Validated @RequestBody TodoBulkModifyRequestDTO requestDTO,
+            BindingResult result,
+            HttpServletRequest request
+    ) {
+        if(result.hasErrors()) {
+            return ResponseEntity.badRequest().body(result.getFieldError());
+        }
 
+        log.info("/api/todos/bulk PATCH request! - size: {}", requestDTO.getTodos().size());
 
+        try {
+            List<TodoDetailResponseDTO> updated
+                    = todoService.updateAll(requestDTO.getTodos(), userInfo.getUserId());
+            return bulkResponse(updated, userInfo, request);
+        } catch (TodoConflictException e) {
+            log.warn(e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(TodoListResponseDTO.builder().error(e.getMessage()).build());
+        } catch (RuntimeException e) {
+            return ResponseEntity
+                    .internalServerError()
+                    .body(TodoListResponseDTO
+                            .builder()
+                            .error(e.getMessage())
+                            .build());
+        }
+    }
 
+    // 할 일 일괄 삭제 요청
+    // DELETE 요청에는 body를 보낼 수 없는 클라이언트가 있어서 POST로 받는다.
+    @PostMapping("/bulk-delete")
+    public ResponseEntity<?> deleteTodos(
+            @AuthenticationPrincipal TokenUserInfo userInfo,
+            @Validated @RequestBody TodoBulkDeleteRequestDTO requestDTO,
+            BindingResult result,
+            HttpServletRequest request
+    ) {
+        if(result.hasErrors()) {
+            return ResponseEntity.badRequest().body(result.getFieldError());
+        }
 
+        log.info("/api/todos/bulk-delete POST request! - size: {}", requestDTO.getIds().size());
 
+        try {
+            List<TodoDetailResponseDTO> deleted
+                    = todoService.deleteAll(requestDTO.getIds(), userInfo.getUserId());
+            return bulkResponse(deleted, userInfo, request);
+        } catch (Exception e) {
+            return ResponseEntity
+                    .internalServerError().body(TodoListResponseDTO.builder().error(e.getMessage()).build());
+        }
+    }
 
+    // 할 일 모두 완료 처리 요청
+    @PatchMapping("/complete-all")
+    public ResponseEntity<?> completeAll(
+            @AuthenticationPrincipal TokenUserInfo userInfo,
+            HttpServletRequest request
+    ) {
+        log.info("/api/todos/complete-all PATCH request!");
 
+        try {
+            int affected = todoService.completeAll(userInfo.getUserId());
+            return setResponse(affected, userInfo, request);
+        } catch (RuntimeException e) {
+            return ResponseEntity
+                    .internalServerError()
+                    .body(TodoListResponseDTO
+                            .builder()
+                            .error(e.getMessage())
+                            .build());
+        }
+    }
+
+    // 완료된 할 일 모두 삭제 요청
+    @DeleteMapping("/completed")
+    public ResponseEntity<?> clearCompleted(
+            @AuthenticationPrincipal TokenUserInfo userInfo,
+            HttpServletRequest request
+    ) {
+        log.info("/api/todos/completed DELETE request!");
 
+        try {
+            int affected = todoService.clearCompleted(userInfo.getUserId());
+            return setResponse(affected, userInfo, request);
+        } catch (Exception e) {
+            return ResponseEntity
+                    .internalServerError().body(TodoListResponseDTO.builder().error(e.getMessage()).build());
+        }
+    }
 
+    // 목록 응답용 ETag: 회원 + 목록 버전 (+ 페이지 요청이라면 페이지 위치)
+    // 목록 버전은 DB에 저장되고 목록을 바꾸는 트랜잭션에서 함께 올라가므로,
+    // 어느 서버에서 응답하든 같은 ETag라면 응답 내용도 같다.
+    private String listETag(String userId, String cursor, Integer size) {
+        StringBuilder eTag = new StringBuilder("\"")
+                .append(Integer.toHexString(userId.hashCode()))
+                .append('-')
+                .append(todoVersionTracker.listVersion(userId));
+        if(cursor != null || size != null) {
+            eTag.append('-').append(size).append('-').append(cursor);
+        }
+        return eTag.append('"').toString();
+    }
 
+    // 브라우저가 목록을 저장해 두되, 쓰기 전에 항상 ETag로 재검증하도록 설정
+    private ResponseEntity.BodyBuilder listResponse(String eTag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache());
+        return eTag == null ? builder : builder.eTag(eTag);
+    }
+
+    // 클라이언트가 변경분(delta) 응답을 요청했는지 확인
+    private boolean isDeltaMode(HttpServletRequest request) {
+        String mode = request.getHeader(RESPONSE_MODE_HEADER);
+        if(mode == null) {
+            mode = request.getParameter(RESPONSE_MODE_PARAM);
+        }
+        return DELTA_MODE.equalsIgnoreCase(mode);
+    }
+
+    private boolean isDeferredMode(HttpServletRequest request) {
+        String mode = request.getHeader(WRITE_MODE_HEADER);
+        if(mode == null) {
+            mode = request.getParameter(WRITE_MODE_PARAM);
+        }
+        return DEFERRED_MODE.equalsIgnoreCase(mode);
+    }
+
+    // 트랜잭션이 커밋된 뒤에 호출되므로, 여기서 읽은 버전에는 이번 변경이 반영되어 있다.
+    private TodoDeltaResponseDTO toDelta(TodoChangeType type,
+                                         TodoDetailResponseDTO todo,
+                                         TokenUserInfo userInfo) {
+        return TodoDeltaResponseDTO.builder()
+                .type(type)
+                .todo(todo)
+                .version(todoVersionTracker.listVersion(userInfo.getUserId()))
+                .build();
+    }
+
+    // 일괄 변경 결과 응답: delta 모드라면 변경된 할 일만, 아니라면 기존처럼 목록 전체를 응답
+    private ResponseEntity<?> bulkResponse(List<TodoDetailResponseDTO> changed,
+                                           TokenUserInfo userInfo,
+                                           HttpServletRequest request) {
+        if(isDeltaMode(request)) {
+            return ResponseEntity.ok()
+                    .body(TodoBulkResponseDTO.builder()
+                            .affected(changed.size())
+                            .todos(changed)
+                            .version(todoVersionTracker.listVersion(userInfo.getUserId()))
+                            .build());
+        }
+        return ResponseEntity.ok()
+                .body(todoService.retrieve(userInfo.getUserId()));
+    }
+
+    // 조건에 맞는 할 일을 한꺼번에 변경한 결과 응답
+    // 어떤 할 일이 바뀌었는지는 조회하지 않으므로 delta 모드에서는 개수와 버전만 응답한다.
+    private ResponseEntity<?> setResponse(int affected,
+                                          TokenUserInfo userInfo,
+                                          HttpServletRequest request) {
+        if(isDeltaMode(request)) {
+            return ResponseEntity.ok()
+                    .body(TodoBulkResponseDTO.builder()
+                            .affected(affected)
+                            .version(todoVersionTracker.listVersion(userInfo.getUserId()))
+                            .build());
+        }
+        return ResponseEntity.ok()
+                .body(todoService.retrieve(userInfo.getUserId()));
+    }
+
+    // If-Match 헤더 값("3", W/"3", 3)에서 버전 숫자를 꺼냄. 형식이 맞지 않으면 null
+    private Long parseVersion(String ifMatch) {
+        String value = ifMatch.trim();
+        if(value.startsWith("W/")) value = value.substring(2);
+        if(value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.example.todo.todoapi.api;
+
+import com.example.todo.auth.TokenUserInfo;
+import com.example.todo.todoapi.event.TodoChangeFeed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/api/todos/events")
+@CrossOrigin
+// 다른 기기에서 바뀐 할 일을 폴링 없이 받을 수 있도록 변경 이벤트를 SSE로 보내주는 컨트롤러
+public class TodoEventController {
+
+    private final TodoChangeFeed todoChangeFeed;
+
+    // 변경 피드 구독 요청
+    // 이벤트 이름: CREATED / UPDATED / DELETED / REFRESHED(목록 전체를 다시 조회해야 함)
+    // 재연결할 때는 브라우저가 마지막으로 받은 이벤트 id를 Last-Event-ID 헤더로 보내준다.
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(
+            @AuthenticationPrincipal TokenUserInfo userInfo,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        log.info("/api/todos/events GET request! - lastEventId: {}", lastEventId);
+
+        Long lastId = null;
+        if(lastEventId != null) {
+            try {
+                lastId = Long.parseLong(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                log.warn("잘못된 Last-Event-ID - {}", lastEventId);
+            }
+        }
+
+        return todoChangeFeed.subscribe(userInfo.getUserId(), lastId);
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.example.todo.todoapi.dto.request;
+
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+// 여러 개의 할 일을 한 번에 등록하는 요청
+@Setter @Getter
+@ToString @EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TodoBulkCreateRequestDTO {
+
+    @NotEmpty
+    @Size(max = 100)
+    private List<@Valid TodoCreateRequestDTO> todos;
+
+}
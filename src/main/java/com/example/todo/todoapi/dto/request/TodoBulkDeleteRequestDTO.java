@@ -0,0 +1,22 @@
+package com.example.todo.todoapi.dto.request;
+
+import lombok.*;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+// 여러 개의 할 일을 한 번에 삭제하는 요청
+@Setter @Getter
+@ToString @EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TodoBulkDeleteRequestDTO {
+
+    @NotEmpty
+    @Size(max = 100)
+    private List<@NotBlank String> ids;
+
+}
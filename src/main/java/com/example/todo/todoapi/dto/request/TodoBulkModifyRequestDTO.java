@@ -0,0 +1,22 @@
+package com.example.todo.todoapi.dto.request;
+
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+// 여러 개의 할 일의 완료 여부를 한 번에 수정하는 요청
+@Setter @Getter
+@ToString @EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TodoBulkModifyRequestDTO {
+
+    @NotEmpty
+    @Size(max = 100)
+    private List<@Valid TodoModifyRequestDTO> todos;
+
+}
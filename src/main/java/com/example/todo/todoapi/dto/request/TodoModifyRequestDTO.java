@@ -15,4 +15,8 @@ public class TodoModifyRequestDTO {
     private String id;
     private boolean done;
 
+    // 클라이언트가 알고 있는 할 일의 버전 (If-Match 헤더로 보내도 됨)
+    // 지정하면 그 사이에 다른 곳에서 수정된 경우 409 Conflict, 지정하지 않으면 그대로 덮어씀
+    private Long version;
+
 }
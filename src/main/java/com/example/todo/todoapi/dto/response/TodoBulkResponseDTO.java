@@ -0,0 +1,20 @@
+package com.example.todo.todoapi.dto.response;
+
+import lombok.*;
+
+import java.util.List;
+
+// 여러 건을 한 번에 변경한 결과만 담아서 응답하는 DTO (delta 모드)
+@Setter @Getter
+@ToString @EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TodoBulkResponseDTO {
+
+    private String error; // 에러 발생 시 에러 메세지를 담을 필드
+    private int affected; // 실제로 변경된 할 일 개수
+    private List<TodoDetailResponseDTO> todos; // 변경된 할 일 목록
+    private long version; // 변경이 반영된 후의 목록 버전
+
+}
@@ -0,0 +1,25 @@
+package com.example.todo.todoapi.dto.response;
+
+import com.example.todo.todoapi.event.TodoChangedEvent;
+import lombok.*;
+
+import java.util.List;
+
+// 변경 피드(SSE)로 클라이언트에게 보내는 이벤트 데이터
+@Setter @Getter
+@ToString @EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TodoChangeEventDTO {
+
+    private TodoChangeType type; // 변경 종류
+    private List<TodoDetailResponseDTO> todos; // 변경된 할 일 목록
+    private long version; // 변경 후 목록 버전 (SSE 이벤트 id와 같음)
+
+    public TodoChangeEventDTO(TodoChangedEvent event) {
+        this.type = event.getType();
+        this.todos = event.getTodos();
+        this.version = event.getVersion();
+    }
+}
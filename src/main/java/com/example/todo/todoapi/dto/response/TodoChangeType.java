@@ -0,0 +1,9 @@
+package com.example.todo.todoapi.dto.response;
+
+// 할 일 한 건에 대해 어떤 변경이 일어났는지
+public enum TodoChangeType {
+
+    CREATED, UPDATED, DELETED,
+    REFRESHED // 여러 건이 한꺼번에 바뀌어서 목록 전체를 다시 조회해야 함
+
+}
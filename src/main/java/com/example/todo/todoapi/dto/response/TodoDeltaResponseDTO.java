@@ -0,0 +1,18 @@
+package com.example.todo.todoapi.dto.response;
+
+import lombok.*;
+
+// 변경된 할 일 한 건만 담아서 응답하는 DTO (목록 전체를 다시 보내지 않음)
+@Setter @Getter
+@ToString @EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TodoDeltaResponseDTO {
+
+    private String error; // 에러 발생 시 에러 메세지를 담을 필드
+    private TodoChangeType type; // 변경 종류
+    private TodoDetailResponseDTO todo; // 변경된 할 일
+    private long version; // 변경이 반영된 후의 목록 버전
+
+}
@@ -1,24 +1,43 @@
 package com.example.todo.todoapi.dto.response;
 
 import com.example.todo.todoapi.entity.Todo;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
 @Setter @Getter
 @ToString @EqualsAndHashCode
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
+// 수정/삭제 응답처럼 일부 필드만 담긴 경우 비어있는 필드는 보내지 않음
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class TodoDetailResponseDTO {
 
     private String id;
     private String title;
     private boolean done;
 
+    // 페이지 커서를 만들 때만 사용하고 클라이언트에게는 보내지 않음
+    @JsonIgnore
+    private LocalDateTime createDate;
+
+    private Long version; // 할 일의 버전 (수정 요청 시 If-Match로 보내면 충돌을 감지할 수 있음)
+
+    // 버전이 없는 할 일(보관된 할 일) 조회용 생성자
+    public TodoDetailResponseDTO(String id, String title, boolean done, LocalDateTime createDate) {
+        this(id, title, done, createDate, null);
+    }
+
     // 엔터티를 DTO로 만들어주는 생성자
     public TodoDetailResponseDTO(Todo todo) {
         this.id = todo.getTodoId();
         this.title = todo.getTitle();
         this.done = todo.isDone();
+        this.createDate = todo.getCreateDate();
+        this.version = todo.getVersion();
     }
 }
 
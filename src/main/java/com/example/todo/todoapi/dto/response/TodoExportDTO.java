@@ -0,0 +1,36 @@
+package com.example.todo.todoapi.dto.response;
+
+import com.example.todo.todoapi.entity.Todo;
+import com.example.todo.todoapi.entity.TodoArchive;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// 할 일 내보내기/가져오기(NDJSON)의 한 줄에 해당하는 DTO
+// 내보낸 파일을 그대로 가져오기에 사용할 수 있도록 같은 형식을 읽고 쓴다.
+@Setter @Getter
+@ToString @EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TodoExportDTO {
+
+    private String id; // 가져올 때 이미 있는 id라면 건너뜀 (없으면 새로 발급)
+    private String title;
+    private boolean done;
+    private LocalDateTime createDate; // 가져올 때 없으면 가져온 시각
+
+    public TodoExportDTO(Todo todo) {
+        this.id = todo.getTodoId();
+        this.title = todo.getTitle();
+        this.done = todo.isDone();
+        this.createDate = todo.getCreateDate();
+    }
+
+    public TodoExportDTO(TodoArchive archive) {
+        this.id = archive.getTodoId();
+        this.title = archive.getTitle();
+        this.done = archive.isDone();
+        this.createDate = archive.getCreateDate();
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.todo.todoapi.dto.response;
+
+import lombok.*;
+
+// 할 일 가져오기 결과를 담아서 응답하는 DTO
+@Setter @Getter
+@ToString @EqualsAndHashCode
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TodoImportResponseDTO {
+
+    private String error; // 에러 발생 시 에러 메세지를 담을 필드 (에러 전까지 가져온 건은 그대로 저장됨)
+    private int imported; // 저장된 할 일 개수
+    private int skipped; // 형식이 잘못되었거나 이미 있는 id라서 건너뛴 줄 수
+    private int skippedDeleted; // skipped 중 삭제된 할 일과 id가 같아서 복원하지 않은 줄 수
+    private long version; // 가져오기가 반영된 후의 목록 버전
+
+}
@@ -13,6 +13,7 @@ public class TodoListResponseDTO {
 
     private String error; // 에러 발생 시 에러 메세지를 담을 필드
     private List<TodoDetailResponseDTO> todos;
+    private String nextCursor; // 다음 페이지를 요청할 때 사용할 커서 (마지막 페이지라면 null)
 
 }
 
@@ -2,8 +2,11 @@ package com.example.todo.todoapi.entity;
 
 import com.example.todo.userapi.entity.User;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.SQLDelete;
+import org.hibernate.annotations.Where;
 
 import javax.persistence.*;
 import java.time.LocalDateTime;
@@ -13,12 +16,26 @@ import java.time.LocalDateTime;
 @NoArgsConstructor @AllArgsConstructor
 @Builder
 @Entity
-@Table(name = "tbl_todo")
+@Table(name = "tbl_todo",
+        indexes = {
+                // 회원별 목록을 등록순으로 키셋 조회하기 위한 인덱스
+                @Index(name = "idx_todo_user_create", columnList = "user_id, createDate, todoId"),
+                // 완료된 지 오래된 할 일을 보관 테이블로 옮기기 위한 인덱스
+                @Index(name = "idx_todo_done_completed", columnList = "done, completedAt"),
+                // 삭제 표시된 할 일을 오래된 순서로 조금씩 지우기 위한 인덱스
+                @Index(name = "idx_todo_deleted", columnList = "deletedAt")
+        })
+// 삭제는 삭제 시각만 기록하고(soft delete), 모든 조회에서 삭제된 할 일을 제외한다.
+// 엔터티를 remove 해도 DELETE 대신 삭제 표시 UPDATE가 실행된다.
+@Where(clause = "deleted_at IS NULL")
+@SQLDelete(sql = "UPDATE tbl_todo SET deleted_at = now(), version = version + 1 WHERE todo_id = ? AND version = ?")
 public class Todo {
 
     @Id
-    @GeneratedValue(generator = "system-uuid")
-    @GenericGenerator(name = "system-uuid", strategy = "uuid")
+    @Column(length = 32)
+    @GeneratedValue(generator = "time-ordered-id")
+    // 시간 순서대로 정렬되는 32자리 id (기존 uuid 전략과 같은 형식)
+    @GenericGenerator(name = "time-ordered-id", strategy = "com.example.todo.TimeOrderedIdGenerator")
     private String todoId;
 
     @Column(nullable = false, length = 30)
@@ -26,12 +43,35 @@ public class Todo {
     
     private boolean done; // 할 일 완료 여부
 
+    // 완료 처리된 시각 (완료되지 않았다면 null, 보관 기준)
+    // 완료 여부가 바뀔 때만 함께 바뀐다. (setDone, 완료 여부를 바꾸는 UPDATE 쿼리)
+    private LocalDateTime completedAt;
+
     @CreationTimestamp
     private LocalDateTime createDate; // 등록 시간
 
+    // 낙관적 락을 위한 버전 (수정될 때마다 1씩 증가)
+    // 기존 행은 0부터 시작하도록 기본값 지정
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long version;
+
+    // 삭제된 시각 (삭제되지 않았다면 null)
+    private LocalDateTime deletedAt;
+
+    // 샤딩하면 회원 테이블(0번 샤드)과 다른 DB에 저장될 수 있으므로 외래 키 제약조건은 만들지 않는다.
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id")
+    @JoinColumn(name = "user_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private User user;
+
+    // 완료 여부가 바뀔 때 완료 시각도 함께 기록 (이미 완료된 할 일을 다시 완료해도 시각은 그대로)
+    public void setDone(boolean done) {
+        if (this.done != done) {
+            this.completedAt = done ? LocalDateTime.now() : null;
+        }
+        this.done = done;
+    }
     
 }
 
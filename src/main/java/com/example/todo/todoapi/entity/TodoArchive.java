@@ -0,0 +1,37 @@
+package com.example.todo.todoapi.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 보관된(완료된 지 오래된) 할 일
+// tbl_todo에서 옮겨온 행을 그대로 보관하고, 보관 목록 조회에만 사용한다.
+// 자주 조회되는 tbl_todo의 크기를 진행 중인 할 일 위주로 유지하기 위한 테이블.
+@Getter
+@ToString @EqualsAndHashCode(of = "todoId")
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "tbl_todo_archive",
+        // 회원별 보관 목록을 등록순으로 키셋 조회하기 위한 인덱스
+        indexes = @Index(name = "idx_archive_user_create", columnList = "user_id, createDate, todoId"))
+public class TodoArchive {
+
+    @Id
+    @Column(length = 32)
+    private String todoId; // tbl_todo에서 쓰던 id 그대로
+
+    @Column(name = "user_id", length = 32, nullable = false)
+    private String userId; // 회원 테이블과 조인할 일이 없으므로 연관관계 없이 id만 저장
+
+    @Column(nullable = false, length = 30)
+    private String title;
+
+    private boolean done;
+
+    private LocalDateTime createDate; // 원래 등록 시간
+
+    private LocalDateTime archivedAt; // 보관된 시간
+
+}
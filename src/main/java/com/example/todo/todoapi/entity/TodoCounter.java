@@ -0,0 +1,34 @@
+package com.example.todo.todoapi.entity;
+
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+// 회원별 할 일 개수
+// 할 일 등록/삭제와 같은 트랜잭션에서 함께 갱신해서, 등록할 때마다 COUNT(*)를 하지 않아도 되게 함.
+@Getter
+@ToString @EqualsAndHashCode(of = "userId")
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "tbl_todo_counter")
+public class TodoCounter {
+
+    @Id
+    @Column(name = "user_id", length = 32)
+    private String userId;
+
+    @Column(nullable = false)
+    private int todoCount; // 회원이 가진 할 일 개수
+
+    // 목록 버전 (목록이 바뀌는 트랜잭션에서 함께 증가, ETag와 목록 캐시에 사용)
+    // 여러 서버가 같은 값을 보도록 DB에 저장한다.
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private long listVersion;
+
+}
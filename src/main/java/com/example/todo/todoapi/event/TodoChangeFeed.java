@@ -0,0 +1,432 @@
+package com.example.todo.todoapi.event;
+
+import com.example.todo.cache.BoundedCache;
+import com.example.todo.datasource.ShardContext;
+import com.example.todo.datasource.ShardDirectory;
+import com.example.todo.todoapi.dto.response.TodoChangeEventDTO;
+import com.example.todo.todoapi.dto.response.TodoChangeType;
+import com.example.todo.todoapi.service.TodoVersionTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+// 역할: 회원의 할 일 변경 이벤트를 SSE 연결로 전달하는 객체.
+//
+// - SseEmitter는 서블릿 비동기 요청이라 연결을 유지하는 동안 요청 스레드를 점유하지 않는다.
+//   (연결 수는 server.tomcat.max-connections, 파일 디스크립터 한도에 맞춰서 늘려야 함)
+// - 이벤트는 연결마다 크기가 제한된 큐에 쌓고, 적은 수의 전송 스레드가 큐를 비운다.
+//   큐가 가득 찰 만큼 느린 클라이언트는 연결을 끊는다. (다시 연결하면서 Last-Event-ID로 이어받음)
+// - 전송(emitter.send)은 클라이언트가 받아가지 않으면 막힐 수 있다. 한 번의 전송이 send-timeout을 넘기면
+//   감시 작업이 연결을 끊고 전송 스레드를 깨워서, 막힌 연결 하나가 다른 연결의 전송(하트비트 포함)을 붙잡지 않게 한다.
+// - 회원별로 최근 이벤트를 보관해서, 재연결 시 Last-Event-ID 이후의 이벤트를 다시 보내준다.
+//   보관 범위를 벗어났다면 REFRESHED 이벤트를 보내 목록 전체를 다시 조회하게 한다.
+// - 이벤트 id는 DB에 저장된 목록 버전(tbl_todo_counter.list_version)이라서 어느 서버에 재연결해도 이어받을 수 있다.
+// - 이 서버의 변경은 TodoChangedEvent로 바로 전달하고, 다른 서버의 변경은 poll-millis마다
+//   이 서버에 연결된 회원들의 목록 버전을 조회해서 알아낸다. (바뀌었다면 REFRESHED 이벤트)
+//   이벤트가 이전 버전과 이어지지 않으면(중간 변경을 놓침) 그 이벤트도 REFRESHED로 바꿔서 보낸다.
+//
+// todo.events.poll-millis: 다른 서버의 변경을 확인하는 주기 (기본 1초)
+// todo.events.send-timeout: 이벤트 한 건을 전송하는 데 허용하는 시간 (기본 5초)
+// todo.events.watchdog-millis: 막힌 전송을 확인하는 주기 (기본 1초)
+public class TodoChangeFeed {
+
+    // 목록 버전을 한 번에 조회할 회원 수
+    private static final int POLL_BATCH_SIZE = 500;
+
+    // 큐에 넣어서 하트비트(연결 유지용 주석)를 보내라는 표시
+    private static final TodoChangedEvent HEARTBEAT
+            = new TodoChangedEvent(null, 0, 0, null, List.of());
+
+    private final TodoVersionTracker todoVersionTracker;
+    private final ShardDirectory shardDirectory;
+
+    private final long timeoutMillis;
+    private final long sendTimeoutNanos;
+    private final int bufferSize;
+    private final int historySize;
+    private final int maxConnectionsPerUser;
+
+    // 회원 id -> 열려 있는 연결들
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    // 회원 id -> 연결들에 마지막으로 보낸 목록 버전 (연결이 있는 회원만)
+    private final Map<String, Long> latestVersions = new ConcurrentHashMap<>();
+
+    // 회원 id -> 최근 이벤트 (최근에 변경이 있었던 회원만 크기 제한 안에서 보관)
+    private final BoundedCache<String, EventHistory> histories;
+
+    // 연결들의 큐를 비우는 전송 스레드
+    private final ExecutorService dispatcher;
+
+    private final AtomicInteger connectionCount = new AtomicInteger();
+
+    public TodoChangeFeed(
+            TodoVersionTracker todoVersionTracker,
+            ShardDirectory shardDirectory,
+            @Value("${todo.events.timeout:30m}") Duration timeout,
+            @Value("${todo.events.buffer-size:64}") int bufferSize,
+            @Value("${todo.events.history-size:100}") int historySize,
+            @Value("${todo.events.history-users:10000}") int historyUsers,
+            @Value("${todo.events.max-connections-per-user:5}") int maxConnectionsPerUser,
+            @Value("${todo.events.dispatcher-threads:4}") int dispatcherThreads,
+            @Value("${todo.events.send-timeout:5s}") Duration sendTimeout
+    ) {
+        this.todoVersionTracker = todoVersionTracker;
+        this.shardDirectory = shardDirectory;
+        this.timeoutMillis = timeout.toMillis();
+        this.sendTimeoutNanos = sendTimeout.toNanos();
+        this.bufferSize = bufferSize;
+        this.historySize = historySize;
+        this.maxConnectionsPerUser = maxConnectionsPerUser;
+        this.histories = new BoundedCache<>("todo-event-history", historyUsers, Duration.ofHours(1));
+
+        AtomicInteger threadNo = new AtomicInteger();
+        this.dispatcher = Executors.newFixedThreadPool(dispatcherThreads, r -> {
+            Thread t = new Thread(r, "todo-feed-" + threadNo.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 회원의 변경 피드를 구독
+     * 회원의 샤드에서 호출해야 한다. (요청 스레드라면 이미 지정되어 있음)
+     * @param userId - 로그인 한 회원의 식별 코드
+     * @param lastEventId - 재연결인 경우 마지막으로 받은 이벤트 id (처음 연결이면 null)
+     * @return - 응답으로 돌려줄 SseEmitter
+     */
+    public SseEmitter subscribe(String userId, Long lastEventId) {
+        SseEmitter emitter = createEmitter();
+        Subscription subscription = new Subscription(userId, emitter);
+
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+
+        Set<Subscription> userSubscriptions
+                = subscriptions.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>());
+        userSubscriptions.add(subscription);
+        connectionCount.incrementAndGet();
+
+        // 이 시점의 목록 버전부터 다른 서버의 변경을 확인
+        long current = todoVersionTracker.listVersion(userId);
+        latestVersions.merge(userId, current, Math::max);
+
+        // 한 회원이 너무 많은 연결을 열면 가장 먼저 연 연결부터 닫음
+        if (userSubscriptions.size() > maxConnectionsPerUser) {
+            userSubscriptions.stream()
+                    .filter(s -> s != subscription)
+                    .min((a, b) -> Long.compare(a.openedAt, b.openedAt))
+                    .ifPresent(Subscription::close);
+        }
+
+        if (lastEventId != null) {
+            replay(subscription, lastEventId, current);
+        }
+        // 응답 헤더를 바로 내보내기 위해 첫 하트비트를 보냄
+        subscription.offer(HEARTBEAT);
+
+        log.info("할 일 변경 피드 구독 - user: {}, lastEventId: {}, 전체 연결 수: {}",
+                userId, lastEventId, connectionCount.get());
+        return emitter;
+    }
+
+    // 이 서버에서 커밋된 변경을 기록하고, 해당 회원의 연결들에 전달
+    @EventListener
+    public void onTodoChanged(TodoChangedEvent event) {
+        publish(event);
+    }
+
+    // 이 서버에 연결된 회원들의 목록 버전을 조회해서, 다른 서버에서 바뀐 목록을 REFRESHED로 알림
+    @Scheduled(fixedDelayString = "${todo.events.poll-millis:1000}")
+    public void pollChanges() {
+        if (latestVersions.isEmpty()) return;
+
+        Map<Integer, List<String>> usersByShard = latestVersions.keySet().stream()
+                .collect(Collectors.groupingBy(shardDirectory::shardOf));
+        usersByShard.forEach((shard, userIds) -> {
+            for (int from = 0; from < userIds.size(); from += POLL_BATCH_SIZE) {
+                List<String> batch = userIds.subList(from, Math.min(from + POLL_BATCH_SIZE, userIds.size()));
+                try {
+                    Map<String, Long> versions = ShardContext.callOn(shard, () -> todoVersionTracker.listVersions(batch));
+                    versions.forEach((userId, version) -> publish(refreshEvent(userId, version, -1)));
+                } catch (RuntimeException e) {
+                    log.error("할 일 목록 버전 조회 실패 - shard: {}", shard, e);
+                }
+            }
+        });
+    }
+
+    // 중간의 프록시/로드밸런서가 유휴 연결을 끊지 않도록 주기적으로 하트비트 전송
+    @Scheduled(fixedDelayString = "${todo.events.heartbeat-millis:25000}")
+    public void sendHeartbeats() {
+        subscriptions.values().forEach(set -> set.forEach(s -> s.offer(HEARTBEAT)));
+    }
+
+    // 전송이 send-timeout을 넘긴 연결을 끊음
+    @Scheduled(fixedDelayString = "${todo.events.watchdog-millis:1000}")
+    public void closeStalledSends() {
+        long now = System.nanoTime();
+        subscriptions.values().forEach(set -> set.forEach(s -> s.closeIfStalled(now)));
+    }
+
+    public int connectionCount() {
+        return connectionCount.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.values().forEach(set -> set.forEach(Subscription::close));
+        dispatcher.shutdown();
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    // 변경을 보관하고 연결들에 전달
+    // 이미 보낸 버전이면 무시하고, 마지막으로 보낸 버전과 이어지지 않으면 REFRESHED로 바꿔서 보낸다.
+    // (연결이 없는 회원은 보관만 함)
+    private void publish(TodoChangedEvent event) {
+        TodoChangedEvent[] delivered = {event};
+        latestVersions.computeIfPresent(event.getUserId(), (id, latest) -> {
+            if (event.getVersion() <= latest) {
+                delivered[0] = null;
+                return latest;
+            }
+            if (event.getPreviousVersion() != latest) {
+                delivered[0] = refreshEvent(id, event.getVersion(), latest);
+            }
+            return event.getVersion();
+        });
+        if (delivered[0] == null) return;
+
+        historyOf(delivered[0]).add(delivered[0]);
+
+        Set<Subscription> userSubscriptions = subscriptions.get(event.getUserId());
+        if (userSubscriptions == null) return;
+
+        for (Subscription subscription : userSubscriptions) {
+            subscription.offer(delivered[0]);
+        }
+    }
+
+    // Last-Event-ID 이후의 이벤트를 다시 보냄
+    // 보관된 이벤트가 현재 목록 버전까지 이어지지 않는다면(다른 서버의 변경, 보관 범위 초과) REFRESHED를 보냄
+    private void replay(Subscription subscription, long lastEventId, long current) {
+        if (lastEventId >= current) return;
+
+        EventHistory history = histories.getIfPresent(subscription.userId);
+        List<TodoChangedEvent> missed = history == null ? null : history.since(lastEventId);
+        if (missed == null || missed.isEmpty() || missed.get(missed.size() - 1).getVersion() != current) {
+            subscription.offer(refreshEvent(subscription.userId, current, lastEventId));
+            return;
+        }
+        missed.forEach(subscription::offer);
+    }
+
+    private TodoChangedEvent refreshEvent(String userId, long version, long previousVersion) {
+        return new TodoChangedEvent(userId, version, previousVersion, TodoChangeType.REFRESHED, List.of());
+    }
+
+    private EventHistory historyOf(TodoChangedEvent event) {
+        EventHistory history = histories.getIfPresent(event.getUserId());
+        if (history != null) return history;
+
+        synchronized (histories) {
+            history = histories.getIfPresent(event.getUserId());
+            if (history == null) {
+                // 이 이벤트 직전 버전까지는 빠진 이벤트가 없는 상태에서 보관을 시작
+                history = new EventHistory(historySize, event.getPreviousVersion());
+                histories.put(event.getUserId(), history);
+            }
+            return history;
+        }
+    }
+
+    private void unregister(Subscription subscription) {
+        Set<Subscription> userSubscriptions = subscriptions.get(subscription.userId);
+        if (userSubscriptions != null && userSubscriptions.remove(subscription)) {
+            connectionCount.decrementAndGet();
+            if (userSubscriptions.isEmpty() && subscriptions.remove(subscription.userId, userSubscriptions)) {
+                latestVersions.remove(subscription.userId);
+            }
+        }
+    }
+
+    // 회원별 최근 이벤트 보관소
+    private static class EventHistory {
+        private final int capacity;
+        private final Deque<TodoChangedEvent> events = new ArrayDeque<>();
+        // 이 버전 이후의 이벤트는 모두 보관하고 있음
+        private long completeSince;
+
+        EventHistory(int capacity, long completeSince) {
+            this.capacity = capacity;
+            this.completeSince = completeSince;
+        }
+
+        synchronized void add(TodoChangedEvent event) {
+            long last = events.isEmpty() ? completeSince : events.getLast().getVersion();
+            if (event.getVersion() <= last) return;
+            if (event.getPreviousVersion() != last) {
+                // 중간 변경(다른 서버의 변경)을 놓쳤다면 이 이벤트부터 다시 보관
+                events.clear();
+                completeSince = event.getPreviousVersion();
+            }
+            events.addLast(event);
+            if (events.size() > capacity) {
+                completeSince = events.removeFirst().getVersion();
+            }
+        }
+
+        // lastEventId 이후의 이벤트 목록 (보관 범위를 벗어났다면 null)
+        synchronized List<TodoChangedEvent> since(long lastEventId) {
+            if (lastEventId < completeSince) {
+                return null;
+            }
+            List<TodoChangedEvent> missed = new ArrayList<>();
+            for (TodoChangedEvent event : events) {
+                if (event.getVersion() > lastEventId) {
+                    missed.add(event);
+                }
+            }
+            return missed;
+        }
+    }
+
+    // SSE 연결 하나
+    private final class Subscription {
+        private final String userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<TodoChangedEvent> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final long openedAt = System.nanoTime();
+        private volatile boolean closed;
+        // 전송 중인 스레드와 전송을 시작한 시각 (전송 중이 아니면 null)
+        private Thread sender;
+        private long sendStartedAt;
+
+        Subscription(String userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void offer(TodoChangedEvent event) {
+            if (closed) return;
+            if (!queue.offer(event)) {
+                // 큐가 가득 참 = 클라이언트가 이벤트를 제때 받아가지 못함 -> 연결 종료
+                log.warn("느린 구독자 연결 종료 - user: {}", userId);
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        // 전송 스레드에 큐 비우기를 맡김 (연결마다 동시에 하나의 스레드만 전송해서 순서를 보장)
+        private void scheduleDrain() {
+            if (!draining.compareAndSet(false, true)) return;
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                draining.set(false);
+                close();
+            }
+        }
+
+        private void drain() {
+            try {
+                TodoChangedEvent event;
+                while (!closed && (event = queue.poll()) != null) {
+                    send(event);
+                }
+            } catch (IOException | IllegalStateException e) {
+                // 클라이언트가 연결을 끊었거나 이미 완료된 연결
+                log.debug("피드 전송 실패 - user: {}, err: {}", userId, e.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+                // 전송하는 사이에 새로 들어온 이벤트가 있다면 다시 예약
+                if (!closed && !queue.isEmpty()) {
+                    scheduleDrain();
+                }
+            }
+        }
+
+        private void send(TodoChangedEvent event) throws IOException {
+            synchronized (this) {
+                sender = Thread.currentThread();
+                sendStartedAt = System.nanoTime();
+            }
+            try {
+                emitter.send(toSseEvent(event));
+            } finally {
+                synchronized (this) {
+                    sender = null;
+                    // 감시 작업이 인터럽트했다면 여기서 지워서, 전송 스레드가 다른 연결을 보낼 때 영향이 없게 함
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        // 전송이 send-timeout을 넘겼다면 연결을 끊고 막힌 전송 스레드를 깨움
+        void closeIfStalled(long now) {
+            synchronized (this) {
+                if (sender == null || now - sendStartedAt < sendTimeoutNanos) return;
+                log.warn("전송이 막힌 구독자 연결 종료 - user: {}", userId);
+                sender.interrupt();
+            }
+            close();
+        }
+
+        private SseEmitter.SseEventBuilder toSseEvent(TodoChangedEvent event) {
+            if (event == HEARTBEAT) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            return SseEmitter.event()
+                    .id(String.valueOf(event.getVersion()))
+                    .name(event.getType().name())
+                    .data(new TodoChangeEventDTO(event), MediaType.APPLICATION_JSON);
+        }
+
+        void close() {
+            if (closed) return;
+            closed = true;
+            queue.clear();
+            unregister(this);
+            try {
+                emitter.complete();
+            } catch (Exception ignored) {
+                // 이미 끊어진 연결
+            }
+        }
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.example.todo.todoapi.event;
+
+import com.example.todo.todoapi.dto.response.TodoChangeType;
+import com.example.todo.todoapi.dto.response.TodoDetailResponseDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+
+// 회원의 할 일 목록 변경이 커밋된 뒤에 발행되는 스프링 이벤트
+@Getter
+@ToString
+@AllArgsConstructor
+public class TodoChangedEvent {
+
+    private final String userId; // 목록이 변경된 회원
+    private final long version; // 변경 후 목록 버전 (tbl_todo_counter.list_version)
+    private final long previousVersion; // 변경 전 목록 버전
+    private final TodoChangeType type; // 변경 종류
+    private final List<TodoDetailResponseDTO> todos; // 변경된 할 일 (REFRESHED라면 빈 리스트)
+
+}
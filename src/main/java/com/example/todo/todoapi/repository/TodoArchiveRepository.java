@@ -0,0 +1,46 @@
+package com.example.todo.todoapi.repository;
+
+import com.example.todo.todoapi.dto.response.TodoDetailResponseDTO;
+import com.example.todo.todoapi.entity.TodoArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface TodoArchiveRepository
+    extends JpaRepository<TodoArchive, String> {
+
+    // 조회 결과를 바로 담을 DTO 생성자 표현식 (보관된 할 일에는 버전이 없음)
+    String ARCHIVE_PROJECTION = "new com.example.todo.todoapi.dto.response.TodoDetailResponseDTO(" +
+            "a.todoId, a.title, a.done, a.createDate)";
+
+    // 키셋 페이지네이션 - 첫 페이지
+    @Query("SELECT " + ARCHIVE_PROJECTION + " FROM TodoArchive a WHERE a.userId = :userId" +
+            " ORDER BY a.createDate ASC, a.todoId ASC")
+    List<TodoDetailResponseDTO> findFirstPage(@Param("userId") String userId, Pageable pageable);
+
+    // 키셋 페이지네이션 - 커서 이후 페이지
+    @Query("SELECT " + ARCHIVE_PROJECTION + " FROM TodoArchive a WHERE a.userId = :userId" +
+            " AND a.createDate >= :createDate" +
+            " AND (a.createDate > :createDate OR a.todoId > :todoId)" +
+            " ORDER BY a.createDate ASC, a.todoId ASC")
+    List<TodoDetailResponseDTO> findPageAfter(@Param("userId") String userId,
+                                              @Param("createDate") LocalDateTime createDate,
+                                              @Param("todoId") String todoId,
+                                              Pageable pageable);
+
+    // 내보내기 전용 - 보관된 할 일을 한 건씩 흘려보내며 읽는 스트림 (TodoRepository.streamAllByUserId 참고)
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT a FROM TodoArchive a WHERE a.userId = :userId ORDER BY a.createDate ASC, a.todoId ASC")
+    Stream<TodoArchive> streamAllByUserId(@Param("userId") String userId);
+
+}
@@ -0,0 +1,56 @@
+package com.example.todo.todoapi.repository;
+
+import com.example.todo.todoapi.entity.TodoCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TodoCounterRepository
+    extends JpaRepository<TodoCounter, String> {
+
+    // 한도를 넘지 않을 때만 개수를 증가 (조건 검사와 증가를 UPDATE 한 번으로 처리)
+    // 같은 회원의 행에 락이 걸리기 때문에 동시에 등록해도 한도를 넘을 수 없다.
+    // 수정된 행이 0개라면 한도 초과이거나 아직 카운터 행이 없는 경우.
+    @Modifying
+    @Query("UPDATE TodoCounter c SET c.todoCount = c.todoCount + :amount" +
+            " WHERE c.userId = :userId AND c.todoCount + :amount <= :limit")
+    int increase(@Param("userId") String userId,
+                 @Param("amount") int amount,
+                 @Param("limit") long limit);
+
+    // 개수 감소 (0 밑으로는 내려가지 않음)
+    @Modifying
+    @Query("UPDATE TodoCounter c SET c.todoCount =" +
+            " CASE WHEN c.todoCount > :amount THEN c.todoCount - :amount ELSE 0 END" +
+            " WHERE c.userId = :userId")
+    int decrease(@Param("userId") String userId, @Param("amount") int amount);
+
+    // 카운터 행이 없는 기존 회원을 위해 현재 할 일 개수로 카운터 행을 만든다.
+    // 이미 행이 있으면 아무것도 하지 않으므로 여러 요청이 동시에 호출해도 안전함.
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO tbl_todo_counter (user_id, todo_count)" +
+            " SELECT :userId, COUNT(*) FROM tbl_todo WHERE user_id = :userId AND deleted_at IS NULL",
+            nativeQuery = true)
+    int initialize(@Param("userId") String userId);
+
+    // 목록 버전을 읽으면서 카운터 행을 잠금 (같은 회원의 변경이 동시에 버전을 올리지 않도록)
+    @Query(value = "SELECT list_version FROM tbl_todo_counter WHERE user_id = :userId FOR UPDATE",
+            nativeQuery = true)
+    Optional<Long> findListVersionForUpdate(@Param("userId") String userId);
+
+    @Modifying
+    @Query("UPDATE TodoCounter c SET c.listVersion = :version WHERE c.userId = :userId")
+    int updateListVersion(@Param("userId") String userId, @Param("version") long version);
+
+    @Query("SELECT c.listVersion FROM TodoCounter c WHERE c.userId = :userId")
+    Optional<Long> findListVersion(@Param("userId") String userId);
+
+    // 여러 회원의 목록 버전 (변경 피드가 다른 서버의 변경을 확인할 때 사용)
+    List<TodoCounter> findAllByUserIdIn(Collection<String> userIds);
+
+}
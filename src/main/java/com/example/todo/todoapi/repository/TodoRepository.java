@@ -1,16 +1,33 @@
 package com.example.todo.todoapi.repository;
 
+import com.example.todo.todoapi.dto.response.TodoDetailResponseDTO;
 import com.example.todo.todoapi.entity.Todo;
 import com.example.todo.userapi.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface TodoRepository
     extends JpaRepository<Todo, String> {
 
+    // 조회 결과를 바로 담을 DTO 생성자 표현식
+    String DETAIL_PROJECTION = "new com.example.todo.todoapi.dto.response.TodoDetailResponseDTO(" +
+            "t.todoId, t.title, t.done, t.createDate, t.version)";
+
+    // 완료 여부를 바꾸는 UPDATE에서 완료 시각도 함께 바꾸는 식 (완료 여부가 그대로라면 기존 시각 유지)
+    // MySQL은 SET 절을 왼쪽부터 적용하므로 done보다 먼저 써야 바뀌기 전의 done과 비교한다.
+    // :completedAt - 완료로 바꾼다면 현재 시각, 완료 취소라면 null
+    String COMPLETED_AT_ASSIGNMENT = "t.completedAt = CASE WHEN t.done = :done THEN t.completedAt ELSE :completedAt END";
+
     // 특정 회원의 할 일 목록 리턴
     // SELECT * FROM tbl_todo WHERE user_id = ?
     @Query("SELECT t FROM Todo t WHERE t.user = :user")
@@ -20,15 +37,95 @@ public interface TodoRepository
     @Query("SELECT COUNT(*) FROM Todo t WHERE t.user= :user")
     int countByUser(@Param("user") User user);
 
+    // 목록 조회 전용 - 엔터티를 만들지 않고 필요한 컬럼만 바로 DTO로 조회
+    // 회원 엔터티를 먼저 조회할 필요 없이 user_id 컬럼으로 바로 찾는다.
+    // SELECT todo_id, title, done, create_date FROM tbl_todo WHERE user_id = ? ORDER BY create_date, todo_id
+    @Query("SELECT " + DETAIL_PROJECTION + " FROM Todo t WHERE t.user.id = :userId" +
+            " ORDER BY t.createDate ASC, t.todoId ASC")
+    List<TodoDetailResponseDTO> findDetailsByUserId(@Param("userId") String userId);
+
+    // 내보내기 전용 - 회원의 할 일을 한 건씩 흘려보내며 읽는 스트림 (호출한 쪽에서 반드시 닫아야 함)
+    // MySQL 드라이버는 fetch size가 Integer.MIN_VALUE일 때만 결과를 한꺼번에 메모리에 올리지 않고 한 행씩 읽는다.
+    // 읽기 전용 힌트: 엔터티의 스냅샷을 만들지 않음 (변경 감지 대상이 아님)
+    @QueryHints({
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = org.hibernate.jpa.QueryHints.HINT_READONLY, value = "true")
+    })
+    @Query("SELECT t FROM Todo t WHERE t.user.id = :userId ORDER BY t.createDate ASC, t.todoId ASC")
+    Stream<Todo> streamAllByUserId(@Param("userId") String userId);
+
+    // 키셋 페이지네이션 - 첫 페이지
+    // SELECT ... FROM tbl_todo WHERE user_id = ? ORDER BY create_date, todo_id LIMIT ?
+    @Query("SELECT " + DETAIL_PROJECTION + " FROM Todo t WHERE t.user.id = :userId" +
+            " ORDER BY t.createDate ASC, t.todoId ASC")
+    List<TodoDetailResponseDTO> findFirstPage(@Param("userId") String userId, Pageable pageable);
+
+    // 키셋 페이지네이션 - 커서 이후 페이지
+    // OFFSET 없이 (user_id, create_date, todo_id) 인덱스에서 커서 위치부터 바로 읽기 때문에
+    // 몇 번째 페이지든 첫 페이지와 비용이 같다.
+    @Query("SELECT " + DETAIL_PROJECTION + " FROM Todo t WHERE t.user.id = :userId" +
+            " AND t.createDate >= :createDate" +
+            " AND (t.createDate > :createDate OR t.todoId > :todoId)" +
+            " ORDER BY t.createDate ASC, t.todoId ASC")
+    List<TodoDetailResponseDTO> findPageAfter(@Param("userId") String userId,
+                                              @Param("createDate") LocalDateTime createDate,
+                                              @Param("todoId") String todoId,
+                                              Pageable pageable);
+
+    // 아래의 UPDATE 문에는 엔터티의 @Where 조건이 붙지 않으므로 삭제된 할 일 제외 조건을 직접 넣는다.
+
+    // 회원의 할 일을 모두 완료 처리 (UPDATE 한 번)
+    // UPDATE tbl_todo SET done = 1, completed_at = now() WHERE user_id = ? AND done = 0
+    @Modifying
+    @Query("UPDATE Todo t SET t.done = true, t.completedAt = CURRENT_TIMESTAMP, t.version = t.version + 1" +
+            " WHERE t.user.id = :userId AND t.done = false AND t.deletedAt IS NULL")
+    int completeAllByUserId(@Param("userId") String userId);
+
+    // 회원의 완료된 할 일을 모두 삭제 표시 (UPDATE 한 번, 실제 삭제는 TodoPurger가 나중에 처리)
+    // UPDATE tbl_todo SET deleted_at = now() WHERE user_id = ? AND done = 1
+    @Modifying
+    @Query("UPDATE Todo t SET t.deletedAt = CURRENT_TIMESTAMP, t.version = t.version + 1" +
+            " WHERE t.user.id = :userId AND t.done = true AND t.deletedAt IS NULL")
+    int deleteCompletedByUserId(@Param("userId") String userId);
+
+    // 내 할 일인 경우에만 완료 여부 수정 (SELECT 없이 UPDATE 한 번)
+    // UPDATE tbl_todo SET completed_at = ?, done = ? WHERE todo_id = ? AND user_id = ?
+    // 수정된 행이 0개라면 없는 할 일이거나 다른 회원의 할 일
+    @Modifying
+    @Query("UPDATE Todo t SET " + COMPLETED_AT_ASSIGNMENT + ", t.done = :done, t.version = t.version + 1" +
+            " WHERE t.todoId = :todoId AND t.user.id = :userId AND t.deletedAt IS NULL")
+    int updateDoneByIdAndUserId(@Param("todoId") String todoId,
+                                @Param("userId") String userId,
+                                @Param("done") boolean done,
+                                @Param("completedAt") LocalDateTime completedAt);
+
+    // 버전이 일치할 때만 수정 (낙관적 락: 락을 잡지 않고 UPDATE 한 번으로 충돌 검사)
+    // UPDATE tbl_todo SET completed_at = ?, done = ?, version = version + 1 WHERE todo_id = ? AND user_id = ? AND version = ?
+    @Modifying
+    @Query("UPDATE Todo t SET " + COMPLETED_AT_ASSIGNMENT + ", t.done = :done, t.version = t.version + 1" +
+            " WHERE t.todoId = :todoId AND t.user.id = :userId AND t.version = :version" +
+            " AND t.deletedAt IS NULL")
+    int updateDoneByIdAndUserIdAndVersion(@Param("todoId") String todoId,
+                                          @Param("userId") String userId,
+                                          @Param("done") boolean done,
+                                          @Param("completedAt") LocalDateTime completedAt,
+                                          @Param("version") long version);
+
+    // 내 할 일이 존재하는지 확인 (조건부 수정이 실패했을 때 404와 409를 구분하기 위해 사용)
+    boolean existsByTodoIdAndUserId(String todoId, String userId);
+
+    // 내 할 일인 경우에만 삭제 표시 (SELECT 없이 한 행만 UPDATE)
+    // 인덱스가 바뀌는 DELETE 대신 삭제 시각만 기록하고, 실제 삭제는 TodoPurger가 한가한 시간에 처리한다.
+    // UPDATE tbl_todo SET deleted_at = now() WHERE todo_id = ? AND user_id = ? AND deleted_at IS NULL
+    @Modifying
+    @Query("UPDATE Todo t SET t.deletedAt = CURRENT_TIMESTAMP, t.version = t.version + 1" +
+            " WHERE t.todoId = :todoId AND t.user.id = :userId AND t.deletedAt IS NULL")
+    int deleteByIdAndUserId(@Param("todoId") String todoId, @Param("userId") String userId);
+
+    // 내 할 일 여러 건을 한 번에 삭제 표시
+    @Modifying
+    @Query("UPDATE Todo t SET t.deletedAt = CURRENT_TIMESTAMP, t.version = t.version + 1" +
+            " WHERE t.todoId IN :todoIds AND t.user.id = :userId AND t.deletedAt IS NULL")
+    int deleteAllByIdsAndUserId(@Param("todoIds") Collection<String> todoIds, @Param("userId") String userId);
 
 }
-
-
-
-
-
-
-
-
-
-
@@ -0,0 +1,197 @@
+package com.example.todo.todoapi.service;
+
+import com.example.todo.datasource.ShardContext;
+import com.example.todo.datasource.ShardDirectory;
+import com.example.todo.todoapi.dto.response.TodoChangeType;
+import com.example.todo.todoapi.dto.response.TodoDetailResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+// 역할: 완료된 지 오래된 할 일을 보관 테이블(tbl_todo_archive)로 옮기는 객체.
+//
+// - 완료된 지(completed_at) threshold가 지난 할 일을 batch-size개씩 옮긴다.
+// - 완료 시각이 없는 예전 완료 할 일은 먼저 완료 시각을 지금으로 채운다.
+//   (언제 완료되었는지 알 수 없으므로 이때부터 threshold가 지나야 옮겨짐)
+// - 한 묶음(복사 + 삭제 + 개수 감소)을 하나의 트랜잭션으로 처리하고, 옮길 행은 먼저 잠가서
+//   옮기는 도중에 완료 취소된 할 일이 보관되지 않도록 한다.
+// - 옮긴 뒤에는 회원별로 DELETED 변경을 알려서 목록 캐시, 검색 색인, 변경 피드가 따라오게 한다.
+// - 보관된 할 일은 작성 한도에서 빠진다. (삭제한 할 일과 같이 개수를 줄임)
+// - 샤딩한 경우 샤드마다 그 샤드의 보관 테이블로 옮긴다.
+//
+// todo.archive.enabled: 사용 여부 (기본 true)
+// todo.archive.threshold: 보관 기준 (완료 후 경과 시간, 기본 30일)
+// todo.archive.batch-size: 한 번에 옮길 행 수 (기본 500)
+// todo.archive.max-batches: 한 번 실행할 때 최대 묶음 수 (기본 100)
+public class TodoArchiver {
+
+    private static final String SELECT_SQL = "SELECT todo_id, user_id FROM tbl_todo" +
+            " WHERE done = 1 AND deleted_at IS NULL AND completed_at < :threshold" +
+            " ORDER BY completed_at LIMIT :limit FOR UPDATE";
+
+    // 완료 시각 컬럼이 생기기 전에 완료된 할 일
+    private static final String BACKFILL_SQL = "UPDATE tbl_todo SET completed_at = :now" +
+            " WHERE done = 1 AND completed_at IS NULL LIMIT :limit";
+
+    private static final String COPY_SQL = "INSERT INTO tbl_todo_archive" +
+            " (todo_id, user_id, title, done, create_date, archived_at)" +
+            " SELECT todo_id, user_id, title, done, create_date, :now FROM tbl_todo WHERE todo_id IN (:ids)";
+
+    private static final String DELETE_SQL = "DELETE FROM tbl_todo WHERE todo_id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TodoQuotaService todoQuotaService;
+    private final TodoVersionTracker todoVersionTracker;
+    private final TodoToggleBuffer todoToggleBuffer;
+    private final ShardDirectory shardDirectory;
+
+    private final boolean enabled;
+    private final Duration threshold;
+    private final int batchSize;
+    private final int maxBatches;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public TodoArchiver(
+            NamedParameterJdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            TodoQuotaService todoQuotaService,
+            TodoVersionTracker todoVersionTracker,
+            TodoToggleBuffer todoToggleBuffer,
+            ShardDirectory shardDirectory,
+            @Value("${todo.archive.enabled:true}") boolean enabled,
+            @Value("${todo.archive.threshold:30d}") Duration threshold,
+            @Value("${todo.archive.batch-size:500}") int batchSize,
+            @Value("${todo.archive.max-batches:100}") int maxBatches
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.todoQuotaService = todoQuotaService;
+        this.todoVersionTracker = todoVersionTracker;
+        this.todoToggleBuffer = todoToggleBuffer;
+        this.shardDirectory = shardDirectory;
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.batchSize = batchSize;
+        this.maxBatches = maxBatches;
+    }
+
+    @Scheduled(fixedDelayString = "${todo.archive.interval-millis:3600000}")
+    public void scheduledArchive() {
+        if (!enabled) return;
+        try {
+            archive();
+        } catch (RuntimeException e) {
+            log.error("할 일 보관 실패", e);
+        }
+    }
+
+    /**
+     * 보관 대상이 없거나 max-batches만큼 처리할 때까지 묶음 단위로 옮김
+     * @return - 옮긴 할 일 개수
+     */
+    public long archive() {
+        if (!running.compareAndSet(false, true)) return 0;
+        try {
+            // 아직 반영되지 않은 완료 취소가 있다면 먼저 반영해서, 보관 대상에서 빠지도록 함
+            todoToggleBuffer.flush();
+
+            long archived = 0;
+            for (int shard : shardDirectory.shards()) {
+                archived += ShardContext.callOn(shard, this::archiveShard);
+            }
+            if (archived > 0) {
+                log.info("완료된 할 일 {}건 보관 완료", archived);
+            }
+            return archived;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // 현재 샤드에서 max-batches만큼 옮김
+    private long archiveShard() {
+        backfillCompletedAt();
+
+        long archived = 0;
+        for (int i = 0; i < maxBatches; i++) {
+            int moved = archiveBatch();
+            archived += moved;
+            if (moved < batchSize) break;
+        }
+        return archived;
+    }
+
+    // 완료 시각이 없는 완료 할 일에 지금 시각을 채움 (한 번에 batch-size개씩, 최대 max-batches번)
+    private void backfillCompletedAt() {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()))
+                .addValue("limit", batchSize);
+        for (int i = 0; i < maxBatches; i++) {
+            if (jdbcTemplate.update(BACKFILL_SQL, params) < batchSize) break;
+        }
+    }
+
+    // 한 묶음을 옮기고 옮긴 개수를 리턴
+    private int archiveBatch() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp before = Timestamp.valueOf(LocalDateTime.now().minus(threshold));
+
+        // 회원 id -> 옮긴 할 일 id들
+        Map<String, List<String>> movedByUser = transactionTemplate.execute(status -> {
+            Map<String, List<String>> byUser = new LinkedHashMap<>();
+            jdbcTemplate.query(SELECT_SQL,
+                    new MapSqlParameterSource()
+                            .addValue("threshold", before)
+                            .addValue("limit", batchSize),
+                    rs -> {
+                        byUser.computeIfAbsent(rs.getString("user_id"), id -> new ArrayList<>())
+                                .add(rs.getString("todo_id"));
+                    });
+            if (byUser.isEmpty()) return byUser;
+
+            List<String> ids = byUser.values().stream()
+                    .flatMap(List::stream)
+                    .collect(Collectors.toList());
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("ids", ids)
+                    .addValue("now", now);
+            jdbcTemplate.update(COPY_SQL, params);
+            jdbcTemplate.update(DELETE_SQL, params);
+
+            // 보관된 할 일은 작성 한도에서 제외 (보관 테이블의 할 일은 한도에 포함되지 않음)
+            byUser.forEach((userId, todoIds) -> todoQuotaService.release(userId, todoIds.size()));
+
+            // 회원별 목록 버전을 같은 트랜잭션에서 올리고, 변경 이벤트는 커밋된 뒤에 발행됨
+            // (진행 중인 목록에서는 삭제된 것과 같음)
+            byUser.forEach((userId, todoIds) -> {
+                List<TodoDetailResponseDTO> removed = todoIds.stream()
+                        .map(id -> TodoDetailResponseDTO.builder().id(id).build())
+                        .collect(Collectors.toList());
+                todoVersionTracker.markChanged(userId, TodoChangeType.DELETED, removed);
+            });
+            return byUser;
+        });
+
+        if (movedByUser == null) return 0;
+        return movedByUser.values().stream().mapToInt(List::size).sum();
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.example.todo.todoapi.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+@Getter
+@ToString
+@AllArgsConstructor
+// 키셋 페이지네이션에서 "어디까지 읽었는지"를 나타내는 커서.
+// 클라이언트에게는 내용을 알 수 없는 문자열(Base64)로만 전달한다.
+public class TodoCursor {
+
+    private static final String DELIMITER = "|";
+
+    private final LocalDateTime createDate; // 마지막으로 읽은 할 일의 등록 시간
+    private final String todoId; // 등록 시간이 같을 때 순서를 정하기 위한 id
+
+    // 커서를 클라이언트에게 전달할 문자열로 변환
+    public String encode() {
+        String raw = createDate + DELIMITER + todoId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 클라이언트가 전달한 커서 문자열을 해석
+     * @param cursor - encode()로 만들어진 문자열
+     * @return - 해석된 커서
+     * @throws IllegalArgumentException - 형식이 올바르지 않은 커서인 경우
+     */
+    public static TodoCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = raw.indexOf(DELIMITER);
+            if (idx < 0 || idx == raw.length() - 1) {
+                throw new IllegalArgumentException("올바르지 않은 커서입니다.");
+            }
+            return new TodoCursor(
+                    LocalDateTime.parse(raw.substring(0, idx)),
+                    raw.substring(idx + 1)
+            );
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("올바르지 않은 커서입니다.");
+        }
+    }
+
+}
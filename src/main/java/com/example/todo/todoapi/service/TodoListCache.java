@@ -0,0 +1,75 @@
+package com.example.todo.todoapi.service;
+
+import com.example.todo.cache.BoundedCache;
+import com.example.todo.cache.CacheStats;
+import com.example.todo.todoapi.dto.response.TodoDetailResponseDTO;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+@Component
+// 회원별 할 일 목록 캐시.
+// 저장할 때의 목록 버전을 함께 기록해 두고, 현재 버전과 다르면 캐시를 쓰지 않는다.
+// 등록/수정/삭제가 커밋되면 TodoVersionTracker의 목록 버전이 올라가므로 따로 지우지 않아도 정확히 무효화된다.
+// 목록 버전은 DB에 저장되므로 다른 서버에서 바뀐 목록도 무효화된다.
+// 대신 캐시에서 찾은 경우(hit)에도 버전을 확인하려고 tbl_todo_counter를 PK로 한 번 읽는다.
+// (stats의 hit는 DB 조회가 없었다는 뜻이 아니라, 목록 조회 대신 PK 조회 한 번으로 끝났다는 뜻)
+public class TodoListCache {
+
+    private final TodoVersionTracker todoVersionTracker;
+    private final BoundedCache<String, VersionedTodoList> cache;
+
+    public TodoListCache(
+            TodoVersionTracker todoVersionTracker,
+            @Value("${todo.cache.max-users:10000}") int maxUsers,
+            @Value("${todo.cache.ttl:5m}") Duration ttl
+    ) {
+        this.todoVersionTracker = todoVersionTracker;
+        this.cache = new BoundedCache<>("todo-list", maxUsers, ttl);
+    }
+
+    /**
+     * 캐시된 목록을 리턴하고, 없거나 오래된 목록이라면 loader로 조회해서 저장
+     * @param userId - 회원 식별 코드
+     * @param loader - DB에서 목록을 조회하는 함수
+     * @return - 회원의 할 일 목록 (수정 불가능한 리스트)
+     */
+    public List<TodoDetailResponseDTO> get(
+            String userId,
+            Function<String, List<TodoDetailResponseDTO>> loader
+    ) {
+        long version = todoVersionTracker.listVersion(userId);
+
+        return cache.getOrLoad(
+                userId,
+                cached -> cached.getVersion() >= version,
+                id -> {
+                    // 조회 시작 전의 버전을 기록해야, 조회 도중 커밋된 변경이 있을 때 다음 요청에서 다시 읽게 됨
+                    long loadingVersion = todoVersionTracker.listVersion(id);
+                    return new VersionedTodoList(loadingVersion, List.copyOf(loader.apply(id)));
+                }
+        ).getTodos();
+    }
+
+    public void invalidate(String userId) {
+        cache.invalidate(userId);
+    }
+
+    // 적중(hit)한 조회도 목록 버전 확인을 위한 PK 조회 한 번은 발생함
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class VersionedTodoList {
+        private final long version;
+        private final List<TodoDetailResponseDTO> todos;
+    }
+
+}
@@ -0,0 +1,161 @@
+package com.example.todo.todoapi.service;
+
+import com.example.todo.datasource.ShardContext;
+import com.example.todo.datasource.ShardDirectory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+// 역할: 삭제 표시된(soft delete) 할 일을 실제로 지우는 객체.
+//
+// - 사용자가 적은 시간대(window-start ~ window-end)에만 동작한다. (자정을 넘기는 구간도 가능)
+// - DELETE ... LIMIT 로 batch-size개씩 나눠서 지우고, 묶음마다 바로 커밋해서 락을 오래 잡지 않는다.
+// - 초당 삭제 건수(rows-per-second)를 넘지 않도록 묶음 사이에 쉬어 간다.
+// - 쉬는 동안 다른 주기 작업(하트비트, 토글 반영 등)이 밀리지 않도록 전용 스레드에서 실행한다.
+// - 샤딩한 경우 샤드를 하나씩 차례로 정리한다.
+//
+// todo.purge.enabled: 사용 여부 (기본 true)
+// todo.purge.window-start / window-end: 동작 시간대 (기본 02:00 ~ 06:00, 서버 시간 기준)
+// todo.purge.min-age: 삭제 후 최소 보관 시간 (기본 10분)
+// todo.purge.batch-size: 한 번에 지울 행 수 (기본 500)
+// todo.purge.rows-per-second: 초당 최대 삭제 행 수 (기본 2000)
+public class TodoPurger {
+
+    private static final String PURGE_SQL = "DELETE FROM tbl_todo" +
+            " WHERE deleted_at IS NOT NULL AND deleted_at < ? ORDER BY deleted_at LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardDirectory shardDirectory;
+
+    private final boolean enabled;
+    private final LocalTime windowStart;
+    private final LocalTime windowEnd;
+    private final Duration minAge;
+    private final int batchSize;
+    private final int rowsPerSecond;
+
+    private final ExecutorService worker;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong purgedTotal = new AtomicLong();
+
+    public TodoPurger(
+            JdbcTemplate jdbcTemplate,
+            ShardDirectory shardDirectory,
+            @Value("${todo.purge.enabled:true}") boolean enabled,
+            @Value("${todo.purge.window-start:02:00}") String windowStart,
+            @Value("${todo.purge.window-end:06:00}") String windowEnd,
+            @Value("${todo.purge.min-age:10m}") Duration minAge,
+            @Value("${todo.purge.batch-size:500}") int batchSize,
+            @Value("${todo.purge.rows-per-second:2000}") int rowsPerSecond
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardDirectory = shardDirectory;
+        this.enabled = enabled;
+        this.windowStart = LocalTime.parse(windowStart);
+        this.windowEnd = LocalTime.parse(windowEnd);
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.rowsPerSecond = rowsPerSecond;
+        this.worker = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "todo-purger");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // 주기적으로 동작 시간대인지 확인하고, 이전 실행이 끝났다면 새로 시작
+    @Scheduled(fixedDelayString = "${todo.purge.check-millis:60000}")
+    public void schedule() {
+        if (!enabled || !inWindow(LocalTime.now())) return;
+        if (!running.compareAndSet(false, true)) return;
+
+        worker.execute(() -> {
+            try {
+                purge();
+            } catch (RuntimeException e) {
+                log.error("삭제된 할 일 정리 실패", e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    /**
+     * 삭제 표시 후 min-age가 지난 할 일을 batch-size개씩 지움
+     * 지울 행이 없거나, 동작 시간대가 끝나면 멈춘다.
+     * @return - 이번 실행에서 지운 행 수
+     */
+    public long purge() {
+        long purged = 0;
+        for (int shard : shardDirectory.shards()) {
+            purged += ShardContext.callOn(shard, this::purgeShard);
+        }
+
+        if (purged > 0) {
+            purgedTotal.addAndGet(purged);
+            log.info("삭제된 할 일 {}건 정리 완료", purged);
+        }
+        return purged;
+    }
+
+    // 현재 샤드의 삭제된 할 일을 정리
+    private long purgeShard() {
+        long purged = 0;
+        long pauseMillis = rowsPerSecond > 0 ? 1000L * batchSize / rowsPerSecond : 0;
+
+        while (inWindow(LocalTime.now())) {
+            Timestamp before = Timestamp.valueOf(LocalDateTime.now().minus(minAge));
+            int deleted = jdbcTemplate.update(PURGE_SQL, before, batchSize);
+            purged += deleted;
+
+            if (deleted < batchSize) break;
+            if (!pause(pauseMillis)) break;
+        }
+        return purged;
+    }
+
+    public long purgedTotal() {
+        return purgedTotal.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        worker.shutdownNow();
+    }
+
+    // 시작 시각 <= now < 종료 시각 (시작이 종료보다 늦다면 자정을 넘기는 구간)
+    boolean inWindow(LocalTime now) {
+        if (windowStart.equals(windowEnd)) return true; // 같게 설정하면 항상 동작
+        if (windowStart.isBefore(windowEnd)) {
+            return !now.isBefore(windowStart) && now.isBefore(windowEnd);
+        }
+        return !now.isBefore(windowStart) || now.isBefore(windowEnd);
+    }
+
+    private boolean pause(long millis) {
+        if (millis <= 0) return true;
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            // 서버 종료 중
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package com.example.todo.todoapi.service;
+
+import com.example.todo.userapi.entity.Role;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Component
+@ConfigurationProperties(prefix = "todo.quota")
+@Getter @Setter @ToString
+// 권한별 할 일 작성 한도 설정
+// ex) todo.quota.limits.COMMON=5
+//     todo.quota.limits.PREMIUM=100
+// 한도를 지정하지 않은 권한은 제한 없이 작성할 수 있다.
+// 완료된 지 오래되어 보관된 할 일은 한도에 포함되지 않는다. (TodoArchiver)
+public class TodoQuotaProperties {
+
+    private Map<Role, Integer> limits = new EnumMap<>(Map.of(Role.COMMON, 5));
+
+    // 권한의 작성 한도를 리턴 (제한이 없다면 Long.MAX_VALUE)
+    public long limitOf(Role role) {
+        Integer limit = limits.get(role);
+        return limit == null ? Long.MAX_VALUE : limit;
+    }
+}
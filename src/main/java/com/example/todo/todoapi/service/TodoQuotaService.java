@@ -0,0 +1,60 @@
+package com.example.todo.todoapi.service;
+
+import com.example.todo.todoapi.repository.TodoCounterRepository;
+import com.example.todo.userapi.entity.Role;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@Slf4j
+@RequiredArgsConstructor
+@Transactional
+// 권한별 할 일 작성 한도를 관리하는 서비스
+// 호출한 쪽의 트랜잭션에 참여하므로, 할 일 저장이 롤백되면 개수 증가도 함께 롤백된다.
+// 한도는 tbl_todo에 남아 있는 할 일 개수 기준이다. 삭제하거나 보관 테이블로 옮겨진(TodoArchiver) 할 일은 세지 않는다.
+public class TodoQuotaService {
+
+    private final TodoCounterRepository todoCounterRepository;
+    private final TodoQuotaProperties todoQuotaProperties;
+
+    /**
+     * 할 일 amount개를 추가로 작성할 수 있는지 확인하고, 가능하다면 개수를 증가
+     * @param userId - 회원 식별 코드
+     * @param role - 토큰에 있는 회원 권한
+     * @param amount - 추가할 할 일 개수
+     * @throws IllegalStateException - 작성 한도를 초과한 경우
+     */
+    public void acquire(String userId, Role role, int amount) {
+        long limit = todoQuotaProperties.limitOf(role);
+
+        if(todoCounterRepository.increase(userId, amount, limit) == 1) {
+            return;
+        }
+
+        // 카운터 행이 없어서 실패했을 수도 있으므로, 행을 만든 뒤 한 번 더 시도
+        // (다른 요청이 먼저 행을 만들었다면 initialize는 0을 리턴하지만, 그래도 다시 시도해야 함)
+        if(todoCounterRepository.initialize(userId) == 1) {
+            log.info("할 일 카운터 생성 - user: {}", userId);
+        }
+        if(todoCounterRepository.increase(userId, amount, limit) == 1) {
+            return;
+        }
+
+        throw new IllegalStateException(
+                String.format("%s 회원은 더 이상 일정을 작성할 수 없습니다. (최대 %d개)", role, limit));
+    }
+
+    /**
+     * 삭제된 할 일 개수만큼 카운터를 감소
+     * @param userId - 회원 식별 코드
+     * @param amount - 삭제된 할 일 개수
+     */
+    public void release(String userId, int amount) {
+        if(amount > 0) {
+            todoCounterRepository.decrease(userId, amount);
+        }
+    }
+
+}
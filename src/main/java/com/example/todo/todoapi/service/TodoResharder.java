@@ -0,0 +1,190 @@
+package com.example.todo.todoapi.service;
+
+import com.example.todo.datasource.ShardContext;
+import com.example.todo.datasource.ShardDirectory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+@Slf4j
+// 역할: 회원의 할 일을 다른 샤드로 옮기는 객체. (서비스를 멈추지 않고 옮김)
+//
+// 1. 기존 샤드의 할 일, 보관된 할 일을 새 샤드로 복사한다. (그 동안에도 기존 샤드에 계속 쓸 수 있음)
+// 2. 샤드 배정을 바꾼다. 이후 요청은 새 샤드에서 처리된다.
+// 3. 다른 서버가 배정표를 다시 읽고, 기존 샤드에서 진행 중이던 트랜잭션이 끝날 때까지 기다린다. (grace)
+// 4. 그 사이 기존 샤드에 쓰인 변경을 한 번 더 복사한다. (같은 할 일이라면 버전이 더 큰 쪽을 남김)
+// 5. 새 샤드의 할 일 개수를 다시 세고(목록 버전도 올림), 기존 샤드의 행을 지운다.
+//
+// 모든 단계를 다시 실행해도 결과가 같으므로, 중간에 실패했다면 같은 요청을 다시 하면 된다.
+// (배정이 이미 바뀐 뒤에 실패했다면 기존 샤드의 행만 남고, 조회에는 영향이 없음)
+public class TodoResharder {
+
+    private static final String SELECT_TODOS_SQL = "SELECT todo_id, title, done, create_date, version, deleted_at, completed_at" +
+            " FROM tbl_todo WHERE user_id = ?";
+    private static final String SELECT_VERSIONS_SQL = "SELECT todo_id, version FROM tbl_todo WHERE user_id = ?";
+    private static final String INSERT_TODO_SQL = "INSERT INTO tbl_todo" +
+            " (todo_id, title, done, create_date, version, deleted_at, completed_at, user_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_TODO_SQL = "UPDATE tbl_todo SET title = ?, done = ?, version = ?, deleted_at = ?, completed_at = ?" +
+            " WHERE todo_id = ? AND user_id = ? AND version < ?";
+
+    private static final String SELECT_ARCHIVE_SQL = "SELECT todo_id, title, done, create_date, archived_at" +
+            " FROM tbl_todo_archive WHERE user_id = ?";
+    private static final String SELECT_ARCHIVE_IDS_SQL = "SELECT todo_id FROM tbl_todo_archive WHERE user_id = ?";
+    private static final String INSERT_ARCHIVE_SQL = "INSERT INTO tbl_todo_archive" +
+            " (todo_id, title, done, create_date, archived_at, user_id) VALUES (?, ?, ?, ?, ?, ?)";
+
+    // 복사하는 사이에 보관된 할 일은 새 샤드의 tbl_todo에서 지움
+    private static final String DELETE_ARCHIVED_SQL = "DELETE FROM tbl_todo WHERE user_id = ?" +
+            " AND todo_id IN (SELECT todo_id FROM tbl_todo_archive WHERE user_id = ?)";
+    private static final String ENSURE_COUNTER_SQL = "INSERT INTO tbl_todo_counter (user_id, todo_count)" +
+            " SELECT ?, 0 FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM tbl_todo_counter WHERE user_id = ?)";
+    // 개수를 다시 세고, 복사로 목록이 바뀌었으므로 목록 버전도 올림 (TodoVersionTracker.markChanged와 같은 규칙)
+    private static final String RECOUNT_SQL = "UPDATE tbl_todo_counter SET todo_count =" +
+            " (SELECT COUNT(*) FROM tbl_todo WHERE user_id = ? AND deleted_at IS NULL)," +
+            " list_version = CASE WHEN list_version < ? THEN ? ELSE list_version + 1 END WHERE user_id = ?";
+
+    private static final String[] DELETE_SOURCE_SQL = {
+            "DELETE FROM tbl_todo WHERE user_id = ?",
+            "DELETE FROM tbl_todo_archive WHERE user_id = ?",
+            "DELETE FROM tbl_todo_counter WHERE user_id = ?"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ShardDirectory shardDirectory;
+    private final long graceMillis;
+
+    // 옮기는 중인 회원 (같은 회원을 동시에 옮기지 않도록)
+    private final Set<String> moving = ConcurrentHashMap.newKeySet();
+
+    public TodoResharder(
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            ShardDirectory shardDirectory,
+            @Value("${todo.sharding.reshard-grace-millis:15000}") long graceMillis
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardDirectory = shardDirectory;
+        this.graceMillis = graceMillis;
+    }
+
+    /**
+     * 회원의 할 일을 target 샤드로 옮김
+     * grace 시간 동안 기다리므로 요청 스레드에서 호출하면 그만큼 응답이 늦어진다.
+     * 트랜잭션 안에서 호출하면 안 된다. (단계마다 샤드를 바꿔가며 따로 커밋함)
+     * @param userId - 옮길 회원의 식별 코드
+     * @param target - 옮겨갈 샤드 번호
+     * @return - 새 샤드로 복사한 행 수 (할 일 + 보관된 할 일, 이미 그 샤드에 있었다면 0)
+     * @throws IllegalArgumentException - 없는 샤드 번호인 경우
+     * @throws IllegalStateException - 같은 회원을 이미 옮기는 중인 경우
+     */
+    public int move(String userId, int target) {
+        if (target < 0 || target >= shardDirectory.shardCount()) {
+            throw new IllegalArgumentException(
+                    String.format("샤드 번호는 0 ~ %d 사이여야 합니다.", shardDirectory.shardCount() - 1));
+        }
+        if (!moving.add(userId)) {
+            throw new IllegalStateException("이미 다른 샤드로 옮기는 중인 회원입니다.");
+        }
+
+        try {
+            int source = shardDirectory.shardOf(userId);
+            if (source == target) return 0;
+
+            log.info("할 일 샤드 이동 시작 - user: {}, {} -> {}", userId, source, target);
+            int copied = copy(userId, source, target);
+
+            shardDirectory.assign(userId, target);
+            pause();
+
+            copied += copy(userId, source, target);
+            ShardContext.runOn(target, () -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(DELETE_ARCHIVED_SQL, userId, userId);
+                long now = System.currentTimeMillis();
+                jdbcTemplate.update(ENSURE_COUNTER_SQL, userId, userId);
+                jdbcTemplate.update(RECOUNT_SQL, userId, now, now, userId);
+            }));
+            ShardContext.runOn(source, () -> transactionTemplate.executeWithoutResult(status -> {
+                for (String sql : DELETE_SOURCE_SQL) {
+                    jdbcTemplate.update(sql, userId);
+                }
+            }));
+
+            log.info("할 일 샤드 이동 완료 - user: {}, {} -> {}, 복사한 행: {}", userId, source, target, copied);
+            return copied;
+        } finally {
+            moving.remove(userId);
+        }
+    }
+
+    // source 샤드에만 있거나 더 최신인 행을 target 샤드에 씀
+    private int copy(String userId, int source, int target) {
+        List<Object[]> todos = ShardContext.callOn(source, () -> jdbcTemplate.query(SELECT_TODOS_SQL,
+                (rs, n) -> new Object[]{
+                        rs.getString("todo_id"), rs.getString("title"), rs.getBoolean("done"),
+                        rs.getTimestamp("create_date"), rs.getLong("version"), rs.getTimestamp("deleted_at"),
+                        rs.getTimestamp("completed_at")
+                }, userId));
+        List<Object[]> archived = ShardContext.callOn(source, () -> jdbcTemplate.query(SELECT_ARCHIVE_SQL,
+                (rs, n) -> new Object[]{
+                        rs.getString("todo_id"), rs.getString("title"), rs.getBoolean("done"),
+                        rs.getTimestamp("create_date"), rs.getTimestamp("archived_at"), userId
+                }, userId));
+
+        return ShardContext.callOn(target, () -> transactionTemplate.execute(status -> {
+            Map<String, Long> versions = new HashMap<>();
+            jdbcTemplate.query(SELECT_VERSIONS_SQL, rs -> {
+                versions.put(rs.getString("todo_id"), rs.getLong("version"));
+            }, userId);
+            Set<String> archivedIds = new HashSet<>(
+                    jdbcTemplate.queryForList(SELECT_ARCHIVE_IDS_SQL, String.class, userId));
+
+            List<Object[]> inserts = new ArrayList<>();
+            List<Object[]> updates = new ArrayList<>();
+            for (Object[] row : todos) {
+                String todoId = (String) row[0];
+                long version = (Long) row[4];
+                Long existing = versions.get(todoId);
+                if (existing == null) {
+                    inserts.add(new Object[]{row[0], row[1], row[2], row[3], row[4], row[5], row[6], userId});
+                } else if (existing < version) {
+                    updates.add(new Object[]{row[1], row[2], row[4], row[5], row[6], todoId, userId, row[4]});
+                }
+            }
+            List<Object[]> archiveInserts = new ArrayList<>();
+            for (Object[] row : archived) {
+                if (!archivedIds.contains((String) row[0])) archiveInserts.add(row);
+            }
+
+            if (!inserts.isEmpty()) jdbcTemplate.batchUpdate(INSERT_TODO_SQL, inserts);
+            if (!updates.isEmpty()) jdbcTemplate.batchUpdate(UPDATE_TODO_SQL, updates);
+            if (!archiveInserts.isEmpty()) jdbcTemplate.batchUpdate(INSERT_ARCHIVE_SQL, archiveInserts);
+            return inserts.size() + archiveInserts.size();
+        }));
+    }
+
+    private void pause() {
+        if (graceMillis <= 0) return;
+        try {
+            Thread.sleep(graceMillis);
+        } catch (InterruptedException e) {
+            // 서버 종료 중 - 배정은 이미 바뀌었으므로 다시 복사하지 않고 멈춤 (기존 샤드의 행은 남음)
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("샤드 이동이 중단되었습니다.", e);
+        }
+    }
+
+}
@@ -0,0 +1,297 @@
+package com.example.todo.todoapi.service;
+
+import com.example.todo.cache.BoundedCache;
+import com.example.todo.cache.CacheStats;
+import com.example.todo.todoapi.dto.response.TodoDetailResponseDTO;
+import com.example.todo.todoapi.event.TodoChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+// 역할: 할 일 제목 검색을 위한 회원별 메모리 역색인.
+//
+// - 회원마다 따로 색인(샤드)을 만들고, 최근에 검색한 회원의 색인만 크기 제한 안에서 보관한다.
+// - 색인이 없다면 그 회원의 목록을 한 번 조회해서 만들고, 이후에는 TodoChangedEvent로 변경분만 반영한다.
+//   (이벤트의 이전 버전이 색인의 버전과 이어지지 않으면 색인을 버리고 다음 검색 때 다시 만든다)
+// - 다른 서버의 변경은 이벤트가 오지 않으므로, 검색할 때마다 저장된 목록 버전을 읽어서(PK 조회 한 번)
+//   색인을 만든 버전보다 새로우면 다시 만든다.
+// - 영문/숫자는 단어 단위로 색인해서 접두어로 검색하고,
+//   한글은 띄어쓰기 없이 붙여 쓰는 경우가 많아서 글자 단위(1-gram)와 두 글자 단위(2-gram)로도 색인한다.
+// - 검색어가 여러 단어라면 모든 단어를 포함하는 할 일만 찾는다. (AND)
+public class TodoSearchIndex {
+
+    private final TodoVersionTracker todoVersionTracker;
+    private final BoundedCache<String, UserIndex> shards;
+
+    public TodoSearchIndex(
+            TodoVersionTracker todoVersionTracker,
+            @Value("${todo.search.max-users:10000}") int maxUsers,
+            @Value("${todo.search.ttl:30m}") Duration ttl
+    ) {
+        this.todoVersionTracker = todoVersionTracker;
+        this.shards = new BoundedCache<>("todo-search", maxUsers, ttl);
+    }
+
+    /**
+     * 회원의 할 일 중 제목이 검색어와 일치하는 할 일을 등록순으로 리턴
+     * 회원의 샤드에서 호출해야 한다. (저장된 목록 버전을 읽음)
+     * @param userId - 로그인 한 회원의 식별 코드
+     * @param query - 검색어 (공백으로 구분된 단어들)
+     * @param limit - 최대 결과 수
+     * @param loader - 색인이 없을 때 회원의 목록을 조회하는 함수
+     * @return - 검색 결과 (색인과 공유하지 않는 복사본)
+     */
+    public List<TodoDetailResponseDTO> search(
+            String userId, String query, int limit,
+            Function<String, List<TodoDetailResponseDTO>> loader
+    ) {
+        List<String> terms = terms(query);
+        if (terms.isEmpty()) return List.of();
+
+        // 다른 서버에서 바뀐 목록이라면 저장된 버전이 색인보다 새로움
+        long listVersion = todoVersionTracker.listVersion(userId);
+        UserIndex shard = shards.getOrLoad(userId, s -> s.isCurrent(listVersion), id -> build(id, loader));
+        return shard.search(terms, limit);
+    }
+
+    // 커밋된 변경을 색인에 반영 (색인이 없는 회원이라면 무시)
+    @EventListener
+    public void onTodoChanged(TodoChangedEvent event) {
+        UserIndex shard = shards.getIfPresent(event.getUserId());
+        if (shard == null) return;
+
+        if (!shard.apply(event)) {
+            log.debug("검색 색인 버전 불일치로 색인 폐기 - user: {}", event.getUserId());
+            shards.invalidate(event.getUserId());
+        }
+    }
+
+    public CacheStats stats() {
+        return shards.stats();
+    }
+
+    private UserIndex build(String userId, Function<String, List<TodoDetailResponseDTO>> loader) {
+        // 조회 시작 전의 버전부터 이벤트를 이어받는다. (조회 도중 커밋된 변경은 두 번 반영되어도 결과가 같음)
+        long version = todoVersionTracker.listVersion(userId);
+        UserIndex shard = new UserIndex(version);
+        loader.apply(userId).forEach(shard::add);
+
+        // 조회하는 사이에 버전이 바뀌었다면 그 변경의 이벤트를 놓쳤을 수 있으므로,
+        // 이번 검색에만 쓰고 저장된 색인은 다음 검색에서 다시 만든다.
+        if (todoVersionTracker.listVersion(userId) != version) {
+            shard.invalidate();
+        }
+        return shard;
+    }
+
+    // 색인할 토큰: 단어 + (한글이 있다면) 글자, 두 글자 조각
+    static Set<String> tokens(String title) {
+        Set<String> tokens = new HashSet<>();
+        for (String word : words(title)) {
+            tokens.add(word);
+            if (!hasHangul(word)) continue;
+            for (int i = 0; i < word.length(); i++) {
+                tokens.add(word.substring(i, i + 1));
+                if (i + 1 < word.length()) {
+                    tokens.add(word.substring(i, i + 2));
+                }
+            }
+        }
+        return tokens;
+    }
+
+    // 검색어를 단어로 나눔 (중복 제거, 순서 유지)
+    static List<String> terms(String query) {
+        return new ArrayList<>(new LinkedHashSet<>(words(query)));
+    }
+
+    // 소문자로 바꾸고 글자/숫자가 아닌 문자를 기준으로 단어를 나눔
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) return words;
+
+        String normalized = text.toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word.append(c);
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) words.add(word.toString());
+        return words;
+    }
+
+    private static boolean hasHangul(String word) {
+        return word.chars().anyMatch(c -> Character.UnicodeScript.of(c) == Character.UnicodeScript.HANGUL);
+    }
+
+    // 회원 한 명의 색인
+    private static class UserIndex {
+
+        // 정렬 기준: 등록순 (목록 조회와 같은 순서)
+        private static final Comparator<TodoDetailResponseDTO> ORDER = Comparator
+                .comparing(TodoDetailResponseDTO::getCreateDate, Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+                .thenComparing(TodoDetailResponseDTO::getId);
+
+        // 토큰 -> 할 일 id들 (TreeMap이라 접두어로 범위 조회 가능)
+        private final TreeMap<String, Set<String>> postings = new TreeMap<>();
+        // 할 일 id -> 할 일 (색인 전용 복사본)
+        private final Map<String, TodoDetailResponseDTO> todos = new HashMap<>();
+
+        private long version; // 색인에 반영된 목록 버전
+        private volatile boolean valid = true;
+
+        UserIndex(long version) {
+            this.version = version;
+        }
+
+        boolean isValid() {
+            return valid;
+        }
+
+        void invalidate() {
+            valid = false;
+        }
+
+        // 저장된 목록 버전까지 반영된 색인인지 (이 서버의 이벤트로 그보다 앞서 있을 수도 있음)
+        synchronized boolean isCurrent(long listVersion) {
+            return valid && version >= listVersion;
+        }
+
+        /**
+         * 변경 이벤트를 반영
+         * @return - 반영했거나 이미 반영된 변경이라면 true, 중간 변경을 놓쳐서 색인을 다시 만들어야 하면 false
+         */
+        synchronized boolean apply(TodoChangedEvent event) {
+            if (!valid) return false;
+            if (event.getVersion() <= version) return true;
+            if (event.getPreviousVersion() != version) {
+                valid = false;
+                return false;
+            }
+
+            switch (event.getType()) {
+                case CREATED:
+                    event.getTodos().forEach(this::add);
+                    break;
+                case UPDATED:
+                    event.getTodos().forEach(this::update);
+                    break;
+                case DELETED:
+                    event.getTodos().forEach(todo -> remove(todo.getId()));
+                    break;
+                default:
+                    // 여러 건이 한꺼번에 바뀐 경우 -> 다시 만든다
+                    valid = false;
+                    return false;
+            }
+            version = event.getVersion();
+            return true;
+        }
+
+        synchronized void add(TodoDetailResponseDTO todo) {
+            remove(todo.getId());
+            todos.put(todo.getId(), copy(todo, todo.isDone(), todo.getVersion()));
+            for (String token : tokens(todo.getTitle())) {
+                postings.computeIfAbsent(token, t -> new HashSet<>()).add(todo.getId());
+            }
+        }
+
+        // 제목은 바뀌지 않으므로 완료 여부와 버전만 반영
+        private void update(TodoDetailResponseDTO changed) {
+            TodoDetailResponseDTO todo = todos.get(changed.getId());
+            if (todo == null) return;
+            todos.put(todo.getId(), copy(todo, changed.isDone(), changed.getVersion()));
+        }
+
+        private void remove(String todoId) {
+            TodoDetailResponseDTO removed = todos.remove(todoId);
+            if (removed == null) return;
+            for (String token : tokens(removed.getTitle())) {
+                Set<String> ids = postings.get(token);
+                if (ids == null) continue;
+                ids.remove(todoId);
+                if (ids.isEmpty()) postings.remove(token);
+            }
+        }
+
+        synchronized List<TodoDetailResponseDTO> search(List<String> terms, int limit) {
+            Set<String> result = null;
+            for (String term : terms) {
+                Set<String> matched = match(term);
+                if (result == null) {
+                    result = matched;
+                } else {
+                    result.retainAll(matched);
+                }
+                if (result.isEmpty()) return List.of();
+            }
+
+            return result.stream()
+                    .map(todos::get)
+                    .sorted(ORDER)
+                    .limit(limit)
+                    .map(todo -> copy(todo, todo.isDone(), todo.getVersion()))
+                    .collect(Collectors.toList());
+        }
+
+        // 검색어 한 단어와 일치하는 할 일 id들
+        private Set<String> match(String term) {
+            if (!hasHangul(term)) {
+                // 접두어 검색: term 이상, term + 가장 큰 문자 이하의 토큰
+                return union(postings.subMap(term, true, term + Character.MAX_VALUE, true).values());
+            }
+            if (term.length() == 1) {
+                return new HashSet<>(postings.getOrDefault(term, Set.of()));
+            }
+
+            // 두 글자 조각을 모두 포함하는 후보를 찾고, 실제로 제목에 이어서 들어있는지 확인
+            Set<String> candidates = null;
+            for (int i = 0; i + 1 < term.length(); i++) {
+                Set<String> ids = postings.getOrDefault(term.substring(i, i + 2), Set.of());
+                if (candidates == null) {
+                    candidates = new HashSet<>(ids);
+                } else {
+                    candidates.retainAll(ids);
+                }
+                if (candidates.isEmpty()) return candidates;
+            }
+            candidates.removeIf(id -> !todos.get(id).getTitle().toLowerCase(Locale.ROOT).contains(term));
+            return candidates;
+        }
+
+        private Set<String> union(Collection<Set<String>> sets) {
+            Set<String> result = new HashSet<>();
+            sets.forEach(result::addAll);
+            return result;
+        }
+
+        private static TodoDetailResponseDTO copy(TodoDetailResponseDTO todo, boolean done, Long version) {
+            return new TodoDetailResponseDTO(todo.getId(), todo.getTitle(), done, todo.getCreateDate(), version);
+        }
+    }
+
+}
@@ -1,22 +1,32 @@
 package com.example.todo.todoapi.service;
 
 import com.example.todo.auth.TokenUserInfo;
+import com.example.todo.exception.TodoConflictException;
+import com.example.todo.exception.TodoNotFoundException;
 import com.example.todo.todoapi.dto.request.TodoCreateRequestDTO;
 import com.example.todo.todoapi.dto.request.TodoModifyRequestDTO;
+import com.example.todo.todoapi.dto.response.TodoChangeType;
 import com.example.todo.todoapi.dto.response.TodoDetailResponseDTO;
 import com.example.todo.todoapi.dto.response.TodoListResponseDTO;
 import com.example.todo.todoapi.entity.Todo;
+import com.example.todo.todoapi.repository.TodoArchiveRepository;
 import com.example.todo.todoapi.repository.TodoRepository;
-import com.example.todo.userapi.entity.Role;
 import com.example.todo.userapi.entity.User;
 import com.example.todo.userapi.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,91 +35,399 @@ import java.util.stream.Collectors;
 @Transactional
 public class TodoService {
 
+    // 페이지 크기를 지정하지 않았을 때의 기본값과 최대값
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final TodoRepository todoRepository;
+    private final TodoArchiveRepository todoArchiveRepository;
     private final UserRepository userRepository;
+    private final TodoVersionTracker todoVersionTracker;
+    private final TodoListCache todoListCache;
+    private final TodoQuotaService todoQuotaService;
+    private final TodoToggleBuffer todoToggleBuffer;
+    private final TodoSearchIndex todoSearchIndex;
 
     public TodoListResponseDTO create(
             final TodoCreateRequestDTO requestDTO,
             final TokenUserInfo userInfo
             )
             throws RuntimeException {
+        createOne(requestDTO, userInfo);
+        return retrieveUncached(userInfo.getUserId());
+    }
 
-        // 이제는 할 일 등록은 회원만 할 수 있도록 세팅하기 때문에
-        // toEntity의 매개값으로 User 엔터티도 함께 전달해야 합니다. -> userId로 회원 엔터티를 조회해야 함.
-        User user = getUser(userInfo.getUserId());
+    // 할 일을 등록하고, 등록된 할 일 한 건만 리턴
+    public TodoDetailResponseDTO createOne(
+            final TodoCreateRequestDTO requestDTO,
+            final TokenUserInfo userInfo
+    )
+            throws RuntimeException {
 
         // 권한에 따른 글쓰기 제한 처리
-        // 일반 회원이 일정을 5개 초과해서 작성하면 예외를 발생.
-        if(userInfo.getRole() == Role.COMMON
-                && todoRepository.countByUser(user) >= 5) {
-            throw new IllegalStateException("일반회원은 더 이상 일정을 작성할 수 없습니다.");
-        }
+        // 권한별 한도(기본: 일반 회원 5개)를 넘으면 예외를 발생.
+        // COUNT(*) 대신 회원별 카운터를 조건부로 증가시키므로 동시에 등록해도 한도를 넘지 않는다.
+        todoQuotaService.acquire(userInfo.getUserId(), userInfo.getRole(), 1);
+
+        // 이제는 할 일 등록은 회원만 할 수 있도록 세팅하기 때문에
+        // toEntity의 매개값으로 User 엔터티도 함께 전달해야 합니다. -> userId로 회원 엔터티를 참조해야 함.
+        User user = getUser(userInfo.getUserId());
 
-        todoRepository.save(requestDTO.toEntity(user));
+        Todo saved = todoRepository.save(requestDTO.toEntity(user));
         log.info("할 일 저장 완료! 제목: {}", requestDTO.getTitle());
-        return retrieve(userInfo.getUserId());
+        TodoDetailResponseDTO created = new TodoDetailResponseDTO(saved);
+        todoVersionTracker.markChanged(userInfo.getUserId(), TodoChangeType.CREATED, created);
+        return created;
     }
 
+    // 조회 전용 트랜잭션: 영속성 컨텍스트에 엔터티를 등록하지 않고, 변경 감지와 flush도 하지 않는다.
+    // SUPPORTS: 트랜잭션을 따로 시작하지 않는다.
+    // 캐시에 목록이 있어도 목록 버전을 확인하느라 카운터 행을 PK로 한 번 읽으므로 DB 커넥션은 잠깐 사용한다.
+    // (캐시가 줄여주는 것은 할 일 행 전체를 읽는 목록 조회)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public TodoListResponseDTO retrieve(String userId) {
 
-        // 로그인 한 유저의 정보를 데이터베이스 조회
-        User user = getUser(userId);
+        // 회원 정보를 따로 조회하지 않고, 토큰에 있는 회원 id로 바로 DTO 목록을 조회
+        List<TodoDetailResponseDTO> dtoList
+                = todoListCache.get(userId, todoRepository::findDetailsByUserId);
 
-        List<Todo> entityList = todoRepository.findAllByUser(user);
+        return TodoListResponseDTO.builder()
+                .todos(todoToggleBuffer.overlay(userId, dtoList))
+                .build();
+    }
 
-        List<TodoDetailResponseDTO> dtoList
-                = entityList.stream()
-                /*.map(todo -> new TodoDetailResponseDTO(todo))*/
-                .map(TodoDetailResponseDTO::new)
-                .collect(Collectors.toList());
+    // 변경 직후의 목록 응답용
+    // 아직 커밋 전이라 목록 버전이 올라가지 않았으므로 캐시를 거치지 않고 바로 조회한다.
+    private TodoListResponseDTO retrieveUncached(String userId) {
+        return TodoListResponseDTO.builder()
+                .todos(todoToggleBuffer.overlay(userId, todoRepository.findDetailsByUserId(userId)))
+                .build();
+    }
+
+    /**
+     * 회원의 할 일 목록을 등록순으로 한 페이지만 조회
+     * @param userId - 로그인 한 회원의 식별 코드
+     * @param cursor - 이전 페이지 응답의 nextCursor (첫 페이지라면 null)
+     * @param size - 페이지 크기 (최대 MAX_PAGE_SIZE)
+     * @return - 조회된 페이지와 다음 페이지 커서
+     * @throws IllegalArgumentException - 커서가 올바르지 않은 경우
+     */
+    @Transactional(readOnly = true)
+    public TodoListResponseDTO retrievePage(String userId, String cursor, Integer size) {
+
+        int pageSize = (size == null || size < 1)
+                ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+
+        // 다음 페이지가 있는지 알기 위해 한 건을 더 조회한다.
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<TodoDetailResponseDTO> dtoList;
+        if(cursor == null || cursor.isBlank()) {
+            dtoList = todoRepository.findFirstPage(userId, limit);
+        } else {
+            TodoCursor decoded = TodoCursor.decode(cursor);
+            dtoList = todoRepository.findPageAfter(
+                    userId, decoded.getCreateDate(), decoded.getTodoId(), limit);
+        }
+
+        String nextCursor = null;
+        if(dtoList.size() > pageSize) {
+            dtoList = dtoList.subList(0, pageSize);
+            TodoDetailResponseDTO last = dtoList.get(pageSize - 1);
+            nextCursor = new TodoCursor(last.getCreateDate(), last.getId()).encode();
+        }
+
+        return TodoListResponseDTO.builder()
+                .todos(todoToggleBuffer.overlay(userId, dtoList))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * 보관된(완료 후 오래 지난) 할 일을 등록순으로 한 페이지만 조회
+     * 기본 목록 조회는 보관 테이블을 읽지 않으므로, 보관된 할 일은 이 메서드로만 조회할 수 있다.
+     * @param userId - 로그인 한 회원의 식별 코드
+     * @param cursor - 이전 페이지 응답의 nextCursor (첫 페이지라면 null)
+     * @param size - 페이지 크기 (최대 MAX_PAGE_SIZE)
+     * @return - 조회된 페이지와 다음 페이지 커서
+     * @throws IllegalArgumentException - 커서가 올바르지 않은 경우
+     */
+    @Transactional(readOnly = true)
+    public TodoListResponseDTO retrieveArchivePage(String userId, String cursor, Integer size) {
+
+        int pageSize = (size == null || size < 1)
+                ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<TodoDetailResponseDTO> dtoList;
+        if(cursor == null || cursor.isBlank()) {
+            dtoList = todoArchiveRepository.findFirstPage(userId, limit);
+        } else {
+            TodoCursor decoded = TodoCursor.decode(cursor);
+            dtoList = todoArchiveRepository.findPageAfter(
+                    userId, decoded.getCreateDate(), decoded.getTodoId(), limit);
+        }
+
+        String nextCursor = null;
+        if(dtoList.size() > pageSize) {
+            dtoList = dtoList.subList(0, pageSize);
+            TodoDetailResponseDTO last = dtoList.get(pageSize - 1);
+            nextCursor = new TodoCursor(last.getCreateDate(), last.getId()).encode();
+        }
 
         return TodoListResponseDTO.builder()
                 .todos(dtoList)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * 회원의 할 일을 제목으로 검색 (메모리 색인을 사용하므로 색인이 만들어진 뒤에는 DB를 조회하지 않음)
+     * @param userId - 로그인 한 회원의 식별 코드
+     * @param query - 검색어 (여러 단어라면 모두 포함하는 할 일만)
+     * @param size - 최대 결과 수 (최대 MAX_PAGE_SIZE)
+     * @return - 등록순으로 정렬된 검색 결과
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public TodoListResponseDTO search(String userId, String query, Integer size) {
+        int limit = (size == null || size < 1)
+                ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+
+        List<TodoDetailResponseDTO> found
+                = todoSearchIndex.search(userId, query, limit, todoRepository::findDetailsByUserId);
+
+        return TodoListResponseDTO.builder()
+                .todos(todoToggleBuffer.overlay(userId, found))
                 .build();
     }
 
+    // 할 일의 user_id만 채우면 되므로 회원을 조회하지 않고 참조만 만든다.
+    // (할 일 API는 회원의 샤드에서 실행되는데, 회원 테이블은 0번 샤드에만 있음)
     private User getUser(String userId) {
-        User user = userRepository.findById(userId).orElseThrow(
-                () -> new RuntimeException("회원 정보가 없습니다.")
-        );
-        return user;
+        return userRepository.getReferenceById(userId);
     }
 
     public TodoListResponseDTO delete(final String todoId, final String userId) {
-        try {
-            todoRepository.deleteById(todoId);
-        } catch (Exception e) {
-            log.error("id가 존재하지 않아 삭제에 실패했습니다. - ID: {}, err: {}"
-                    , todoId, e.getMessage());
-            throw new RuntimeException("id가 존재하지 않아 삭제에 실패했습니다.");
+        deleteOne(todoId, userId);
+        return retrieveUncached(userId);
+    }
+
+    // 할 일을 삭제하고, 삭제된 할 일 한 건만 리턴 (id만 담김)
+    // 조회 없이 "내 할 일인 경우에만" 삭제하는 DELETE 한 번으로 처리한다.
+    public TodoDetailResponseDTO deleteOne(final String todoId, final String userId) {
+        int affected = todoRepository.deleteByIdAndUserId(todoId, userId);
+        if(affected == 0) {
+            log.warn("삭제할 할 일이 없습니다. - ID: {}, user: {}", todoId, userId);
+            throw new TodoNotFoundException("id가 존재하지 않아 삭제에 실패했습니다.");
         }
-        return retrieve(userId);
+
+        todoQuotaService.release(userId, 1);
+        TodoDetailResponseDTO deleted = TodoDetailResponseDTO.builder()
+                .id(todoId)
+                .build();
+        todoVersionTracker.markChanged(userId, TodoChangeType.DELETED, deleted);
+        return deleted;
+    }
+
+    /**
+     * 완료 여부 변경을 바로 DB에 반영하지 않고 버퍼에 저장 (write-behind)
+     * 같은 할 일을 연달아 토글하면 마지막 값만 모아서 주기적으로 반영된다.
+     * DB에 접근하지 않으므로 트랜잭션을 시작하지 않는다.
+     * @return - 버퍼에 저장된 할 일 (id, 완료 여부)
+     *           버전을 지정한 요청이거나, write-behind가 꺼져 있거나, 버퍼가 가득 찼다면 null (updateOne으로 바로 반영해야 함)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TodoDetailResponseDTO updateDeferred(final TodoModifyRequestDTO requestDTO, final String userId) {
+        // 충돌 검사가 필요한 요청은 버퍼를 거치지 않음
+        if(requestDTO.getVersion() != null) return null;
+        // 대기 중인 값은 이 서버에만 있으므로 설정으로 켠 경우에만 사용 (TodoToggleBuffer 참고)
+        if(!todoToggleBuffer.isEnabled()) return null;
+
+        if(!todoToggleBuffer.offer(userId, requestDTO.getId(), requestDTO.isDone())) {
+            log.warn("토글 버퍼가 가득 차서 바로 반영합니다. - size: {}", todoToggleBuffer.size());
+            return null;
+        }
+        return TodoDetailResponseDTO.builder()
+                .id(requestDTO.getId())
+                .done(requestDTO.isDone())
+                .build();
     }
 
     public TodoListResponseDTO update(final TodoModifyRequestDTO requestDTO, final String userId)
         throws RuntimeException {
-        Optional<Todo> targetEntity
-                = todoRepository.findById(requestDTO.getId());
-
-        targetEntity.ifPresent(todo -> {
-            todo.setDone(requestDTO.isDone());
+        updateOne(requestDTO, userId);
+        return retrieveUncached(userId);
+    }
 
-            todoRepository.save(todo);
-        });
+    // 할 일을 수정하고, 수정된 할 일 한 건만 리턴 (id, 완료 여부, 알 수 있다면 새 버전)
+    // 조회 없이 "내 할 일인 경우에만" 수정하는 UPDATE 한 번으로 처리한다.
+    // 요청에 버전이 있다면 버전이 일치할 때만 수정하고, 그 사이에 다른 곳에서 수정되었다면 409 예외.
+    public TodoDetailResponseDTO updateOne(final TodoModifyRequestDTO requestDTO, final String userId)
+            throws RuntimeException {
+        String todoId = requestDTO.getId();
+        Long expected = requestDTO.getVersion();
+
+        // 버퍼에 대기 중인 값이 나중에 이 수정을 덮어쓰지 않도록 버림
+        todoToggleBuffer.discard(userId, todoId);
+
+        boolean done = requestDTO.isDone();
+        LocalDateTime completedAt = done ? LocalDateTime.now() : null;
+        int affected = (expected == null)
+                ? todoRepository.updateDoneByIdAndUserId(todoId, userId, done, completedAt)
+                : todoRepository.updateDoneByIdAndUserIdAndVersion(todoId, userId, done, completedAt, expected);
+
+        if(affected == 0) {
+            // 실패했을 때만 한 번 더 조회해서 원인을 구분
+            if(expected != null && todoRepository.existsByTodoIdAndUserId(todoId, userId)) {
+                log.warn("할 일 수정 충돌 - ID: {}, 요청 버전: {}", todoId, expected);
+                throw new TodoConflictException("다른 곳에서 먼저 수정된 할 일입니다. 목록을 새로 고친 후 다시 시도하세요.");
+            }
+            log.warn("수정할 할 일이 없습니다. - ID: {}, user: {}", todoId, userId);
+            throw new TodoNotFoundException("수정할 할 일이 존재하지 않습니다.");
+        }
 
-        return retrieve(userId);
+        TodoDetailResponseDTO updated = TodoDetailResponseDTO.builder()
+                .id(todoId)
+                .done(requestDTO.isDone())
+                .version(expected == null ? null : expected + 1)
+                .build();
+        todoVersionTracker.markChanged(userId, TodoChangeType.UPDATED, updated);
+        return updated;
     }
 
+    /**
+     * 여러 개의 할 일을 한 트랜잭션에서 등록 (INSERT는 JDBC 배치로 전송됨)
+     * 작성 한도는 요청 전체 개수로 한 번에 검사한다. (일부만 등록되는 일은 없음)
+     * @param requestDTOs - 등록할 할 일 목록
+     * @param userInfo - 로그인 한 회원 정보
+     * @return - 등록된 할 일 목록
+     * @throws IllegalStateException - 작성 한도를 초과한 경우
+     */
+    public List<TodoDetailResponseDTO> createAll(
+            final List<TodoCreateRequestDTO> requestDTOs,
+            final TokenUserInfo userInfo
+    ) {
+        todoQuotaService.acquire(userInfo.getUserId(), userInfo.getRole(), requestDTOs.size());
 
-}
+        User user = getUser(userInfo.getUserId());
 
+        List<Todo> entities = requestDTOs.stream()
+                .map(dto -> dto.toEntity(user))
+                .collect(Collectors.toList());
 
+        List<Todo> savedList = todoRepository.saveAll(entities);
+        log.info("할 일 {}개 일괄 저장 완료!", savedList.size());
 
+        List<TodoDetailResponseDTO> created = savedList.stream()
+                .map(TodoDetailResponseDTO::new)
+                .collect(Collectors.toList());
+        todoVersionTracker.markChanged(userInfo.getUserId(), TodoChangeType.CREATED, created);
+        return created;
+    }
 
+    /**
+     * 여러 개의 할 일의 완료 여부를 한 트랜잭션에서 수정 (UPDATE는 JDBC 배치로 전송됨)
+     * 다른 회원의 할 일이나 존재하지 않는 id는 무시한다.
+     * @param requestDTOs - 수정할 할 일 id와 완료 여부 (같은 id가 여러 번 있으면 마지막 값을 사용)
+     * @param userId - 로그인 한 회원의 식별 코드
+     * @return - 수정된 할 일 목록
+     */
+    public List<TodoDetailResponseDTO> updateAll(
+            final List<TodoModifyRequestDTO> requestDTOs,
+            final String userId
+    ) {
+        Map<String, TodoModifyRequestDTO> requestById = new LinkedHashMap<>();
+        requestDTOs.forEach(dto -> {
+            requestById.put(dto.getId(), dto);
+            todoToggleBuffer.discard(userId, dto.getId());
+        });
 
+        List<Todo> targets = findOwnedTodos(requestById.keySet(), userId);
+
+        // 영속 상태의 엔터티를 수정하면 커밋할 때 변경 감지로 UPDATE가 배치로 나간다.
+        // (@Version 덕분에 UPDATE 조건에 버전이 함께 들어감)
+        targets.forEach(todo -> {
+            TodoModifyRequestDTO dto = requestById.get(todo.getTodoId());
+            if(dto.getVersion() != null && dto.getVersion() != todo.getVersion()) {
+                // 한 건이라도 충돌하면 전체를 롤백
+                throw new TodoConflictException("다른 곳에서 먼저 수정된 할 일이 있습니다. - ID: " + todo.getTodoId());
+            }
+            todo.setDone(dto.isDone());
+        });
+        // 응답에 증가된 버전을 담기 위해 여기서 UPDATE를 내보냄
+        todoRepository.flush();
 
+        List<TodoDetailResponseDTO> updated = targets.stream()
+                .map(TodoDetailResponseDTO::new)
+                .collect(Collectors.toList());
+        if(!updated.isEmpty()) {
+            todoVersionTracker.markChanged(userId, TodoChangeType.UPDATED, updated);
+        }
+        return updated;
+    }
 
+    /**
+     * 여러 개의 할 일을 DELETE 한 번으로 삭제
+     * 다른 회원의 할 일이나 존재하지 않는 id는 무시한다.
+     * @param todoIds - 삭제할 할 일 id 목록
+     * @param userId - 로그인 한 회원의 식별 코드
+     * @return - 삭제된 할 일 목록
+     */
+    public List<TodoDetailResponseDTO> deleteAll(final List<String> todoIds, final String userId) {
 
+        List<Todo> targets = findOwnedTodos(new LinkedHashSet<>(todoIds), userId);
 
+        List<TodoDetailResponseDTO> deleted = targets.stream()
+                .map(TodoDetailResponseDTO::new)
+                .collect(Collectors.toList());
 
+        if(!targets.isEmpty()) {
+            List<String> ids = targets.stream().map(Todo::getTodoId).collect(Collectors.toList());
+            int affected = todoRepository.deleteAllByIdsAndUserId(ids, userId);
+            todoQuotaService.release(userId, affected);
+            todoVersionTracker.markChanged(userId, TodoChangeType.DELETED, deleted);
+        }
+        return deleted;
+    }
 
+    /**
+     * 회원의 할 일을 모두 완료 처리 (목록 크기와 상관없이 UPDATE 한 번)
+     * @param userId - 로그인 한 회원의 식별 코드
+     * @return - 완료 처리된 할 일 개수
+     */
+    public int completeAll(final String userId) {
+        todoToggleBuffer.discardAll(userId);
+        int affected = todoRepository.completeAllByUserId(userId);
+        log.info("할 일 {}개 완료 처리! - user: {}", affected, userId);
+
+        if(affected > 0) {
+            todoVersionTracker.markChanged(userId, TodoChangeType.REFRESHED, List.of());
+        }
+        return affected;
+    }
+
+    /**
+     * 회원의 완료된 할 일을 모두 삭제 (목록 크기와 상관없이 DELETE 한 번)
+     * @param userId - 로그인 한 회원의 식별 코드
+     * @return - 삭제된 할 일 개수
+     */
+    public int clearCompleted(final String userId) {
+        todoToggleBuffer.discardAll(userId);
+        int affected = todoRepository.deleteCompletedByUserId(userId);
+        log.info("완료된 할 일 {}개 삭제! - user: {}", affected, userId);
+
+        if(affected > 0) {
+            todoQuotaService.release(userId, affected);
+            todoVersionTracker.markChanged(userId, TodoChangeType.REFRESHED, List.of());
+        }
+        return affected;
+    }
+
+    // 전달받은 id 중에서 로그인 한 회원 소유의 할 일만 조회
+    private List<Todo> findOwnedTodos(Collection<String> todoIds, String userId) {
+        return todoRepository.findAllById(todoIds).stream()
+                .filter(todo -> todo.getUser().getId().equals(userId))
+                .collect(Collectors.toList());
+    }
+
+}
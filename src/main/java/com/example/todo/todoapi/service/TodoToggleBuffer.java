@@ -0,0 +1,324 @@
+package com.example.todo.todoapi.service;
+
+import com.example.todo.datasource.ShardContext;
+import com.example.todo.datasource.ShardDirectory;
+import com.example.todo.todoapi.dto.response.TodoChangeType;
+import com.example.todo.todoapi.dto.response.TodoDetailResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+// 역할: 완료 여부 토글을 바로 DB에 쓰지 않고 모아 두었다가 주기적으로 한 번에 반영하는 객체. (write-behind)
+//
+// - 체크박스를 연달아 누르면 같은 할 일에 대한 요청이 여러 번 들어오는데,
+//   할 일 id별로 마지막 값만 남기고(last write wins) 주기적으로 JDBC 배치 UPDATE 한 번으로 반영한다.
+// - 보관할 수 있는 건수에 제한이 있고, 가득 차면 offer가 false를 리턴한다.
+//   이 때 호출한 쪽은 기존처럼 바로 DB에 반영한다. (요청이 몰리면 자연스럽게 동기 처리로 속도가 조절됨)
+// - 아직 반영되지 않은 값은 조회 결과에 덮어써서 보여준다. (목록 버전과 변경 이벤트는 DB에 반영할 때 올라감)
+// - 서버가 정상 종료될 때 남은 값을 모두 반영한다. (비정상 종료 시에는 유실될 수 있으므로 선택한 요청에만 사용)
+// - 대기 중인 값(pending, inFlight)은 이 서버의 메모리에만 있다.
+//   같은 회원의 요청이 다른 서버로 가면 반영 전의 예전 완료 여부를 (유효한 ETag와 함께) 응답하고,
+//   이 서버가 비정상 종료되면 202로 응답한 토글이 사라진다.
+//   그래서 기본으로는 꺼져 있고(enabled=false, 모든 토글을 바로 반영),
+//   켜려면 한 회원의 요청이 항상 같은 서버로 가도록(회원 id 기준 sticky 라우팅) 구성하고 유실을 감수해야 한다.
+// - 같은 할 일을 바로 DB에 수정하는 경우(discard) 대기 중인 값과 반영 중인 배치에서 그 할 일을 뺀다.
+//   배치는 먼저 행 락(SELECT ... FOR UPDATE)을 잡은 뒤에 빠진 할 일을 확인하고 UPDATE하므로,
+//   반영 중이던 예전 값이 바로 수정한 값을 덮어쓰지 않는다. (먼저 잡은 쪽의 커밋을 DB에서 기다림)
+//   회원별 락은 메모리의 값을 옮길 때만 잡고, DB에 쓰는 동안(커넥션을 얻는 동안 포함)에는 잡지 않는다.
+//   (트랜잭션 안에서 커넥션을 가진 채로 discard가 락을 기다리면, 커넥션 풀이 바닥났을 때 서로 기다리게 됨)
+// - 반영에 계속 실패하는 배치는 max-retries번까지만 다시 시도하고 버린다.
+//
+// todo.write-behind.enabled: write-behind 사용 여부 (기본 false)
+// todo.write-behind.capacity: 최대 보관 건수 (기본 10000)
+// todo.write-behind.flush-millis: 반영 주기 (기본 200ms)
+// todo.write-behind.max-retries: 실패한 배치를 다시 시도하는 최대 횟수 (기본 5)
+public class TodoToggleBuffer {
+
+    // 수정한 회원의 할 일인 경우에만 반영 (다른 회원의 할 일 id거나 그 사이에 삭제되었다면 0건 수정되고 끝남)
+    // 완료 여부가 바뀔 때만 완료 시각을 바꿈 (done보다 먼저 써야 바뀌기 전의 done과 비교함)
+    private static final String UPDATE_SQL = "UPDATE tbl_todo" +
+            " SET completed_at = CASE WHEN done = ? THEN completed_at ELSE ? END, done = ?, version = version + 1" +
+            " WHERE todo_id = ? AND user_id = ? AND deleted_at IS NULL";
+
+    // 반영할 행을 먼저 잠금 (이후에 시작한 바로 수정은 이 배치가 커밋될 때까지 기다림)
+    private static final String LOCK_SQL = "SELECT todo_id FROM tbl_todo" +
+            " WHERE todo_id IN (:ids) AND user_id = :userId FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TodoVersionTracker todoVersionTracker;
+    private final ShardDirectory shardDirectory;
+
+    private final boolean enabled;
+    private final int capacity;
+    private final int maxRetries;
+
+    // 회원별 락: pending과 inFlight 사이에서 값을 옮기거나 뺄 때만 잡음 (DB 작업 중에는 잡지 않음)
+    // (회원 id의 해시로 나눈 고정 개수의 락을 사용해서 회원 수만큼 객체가 늘지 않도록 함)
+    private final Object[] userLocks = new Object[64];
+
+    // 회원 id -> 연속으로 반영에 실패한 횟수 (성공하거나 버리면 지움)
+    private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+
+    // 회원 id -> (할 일 id -> 완료 여부) : 아직 반영을 시작하지 않은 값
+    // 회원별 맵은 바깥 맵의 compute 안에서만 수정한다. (빈 맵 제거와 추가가 겹치지 않도록)
+    private final Map<String, Map<String, Boolean>> pending = new ConcurrentHashMap<>();
+
+    // 회원 id -> (할 일 id -> 완료 여부) : DB에 반영 중인 값 (커밋되기 전까지 조회에 계속 보여줌)
+    // 반영 중에 바로 수정한 할 일은 discard가 여기서 빼고, 배치는 행을 잠근 뒤에 남은 값만 UPDATE한다.
+    private final Map<String, Map<String, Boolean>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    public TodoToggleBuffer(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            TodoVersionTracker todoVersionTracker,
+            ShardDirectory shardDirectory,
+            @Value("${todo.write-behind.enabled:false}") boolean enabled,
+            @Value("${todo.write-behind.capacity:10000}") int capacity,
+            @Value("${todo.write-behind.max-retries:5}") int maxRetries
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.todoVersionTracker = todoVersionTracker;
+        this.shardDirectory = shardDirectory;
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.maxRetries = maxRetries;
+        for (int i = 0; i < userLocks.length; i++) {
+            userLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * 완료 여부 변경을 버퍼에 저장
+     * 이미 대기 중인 할 일이라면 값만 바꾸므로 보관 건수가 늘지 않는다.
+     * @param userId - 로그인 한 회원의 식별 코드
+     * @param todoId - 수정할 할 일 id
+     * @param done - 변경할 완료 여부
+     * @return - 저장했다면 true, 버퍼가 가득 찼거나 꺼져 있다면 false (호출한 쪽에서 바로 DB에 반영해야 함)
+     */
+    public boolean offer(String userId, String todoId, boolean done) {
+        if (!enabled) return false;
+
+        boolean[] accepted = {false};
+        pending.compute(userId, (id, todos) -> {
+            if (todos == null) todos = new ConcurrentHashMap<>();
+            if (todos.containsKey(todoId) || size.get() < capacity) {
+                if (todos.put(todoId, done) == null) size.incrementAndGet();
+                accepted[0] = true;
+            }
+            return todos.isEmpty() ? null : todos;
+        });
+        // DB는 아직 바뀌지 않았으므로 목록 버전은 반영할 때 올린다. (조회 결과에는 overlay로 덮어씀)
+        return accepted[0];
+    }
+
+    /**
+     * 대기 중인 변경을 버림
+     * 같은 할 일을 바로 DB에 수정하는 경우, 나중에 배치가 그 값을 덮어쓰지 않도록 먼저 호출한다.
+     * 반영 중인 배치에서도 빼며, DB 작업을 기다리지 않으므로 트랜잭션 안에서 호출해도 된다.
+     * 반영 중인 배치가 이미 행을 잠갔다면 뒤따르는 UPDATE가 그 커밋을 기다린 뒤에 덮어쓰므로,
+     * 같은 트랜잭션에서 UPDATE보다 먼저 호출해야 한다.
+     */
+    public void discard(String userId, String todoId) {
+        synchronized (lockFor(userId)) {
+            pending.computeIfPresent(userId, (id, todos) -> {
+                if (todos.remove(todoId) != null) size.decrementAndGet();
+                return todos.isEmpty() ? null : todos;
+            });
+            Map<String, Boolean> flushing = inFlight.get(userId);
+            if (flushing != null) flushing.remove(todoId);
+        }
+    }
+
+    // 회원의 대기 중인 변경을 모두 버림 (목록 전체를 한꺼번에 바꾸는 경우, 반영 중인 배치에서도 모두 뺌)
+    public void discardAll(String userId) {
+        synchronized (lockFor(userId)) {
+            pending.computeIfPresent(userId, (id, todos) -> {
+                size.addAndGet(-todos.size());
+                return null;
+            });
+            Map<String, Boolean> flushing = inFlight.get(userId);
+            if (flushing != null) flushing.clear();
+        }
+    }
+
+    /**
+     * 조회한 목록에 아직 반영되지 않은 완료 여부를 덮어씀
+     * 캐시에 들어있는 DTO를 바꾸지 않도록, 대기 중인 값이 있는 항목만 복사해서 새 리스트를 만든다.
+     * @return - 대기 중인 값이 없다면 전달받은 리스트 그대로
+     */
+    public List<TodoDetailResponseDTO> overlay(String userId, List<TodoDetailResponseDTO> todos) {
+        Map<String, Boolean> waiting = inFlight.get(userId);
+        Map<String, Boolean> latest = pending.get(userId);
+        if (waiting == null && latest == null) return todos;
+
+        Map<String, Boolean> merged = new HashMap<>();
+        if (waiting != null) merged.putAll(waiting);
+        if (latest != null) merged.putAll(latest); // 나중에 들어온 값이 우선
+
+        List<TodoDetailResponseDTO> result = new ArrayList<>(todos.size());
+        for (TodoDetailResponseDTO todo : todos) {
+            Boolean done = merged.get(todo.getId());
+            if (done == null) {
+                result.add(todo);
+                continue;
+            }
+            TodoDetailResponseDTO copy = new TodoDetailResponseDTO(
+                    todo.getId(), todo.getTitle(), done, todo.getCreateDate(), null);
+            result.add(copy); // 반영 후의 버전은 아직 알 수 없으므로 비워서 보냄
+        }
+        return result;
+    }
+
+    // 회원에게 아직 반영되지 않은 값이 있는지 (있다면 조회 결과가 DB와 다름)
+    public boolean hasPending(String userId) {
+        return pending.containsKey(userId) || inFlight.containsKey(userId);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    // 모아둔 변경을 주기적으로 DB에 반영
+    @Scheduled(fixedDelayString = "${todo.write-behind.flush-millis:200}")
+    public void scheduledFlush() {
+        flush();
+    }
+
+    // 서버가 정상 종료될 때 남은 변경을 모두 반영
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 대기 중인 변경을 회원 단위로 꺼내서 JDBC 배치로 반영
+     * 회원별 락은 값을 꺼낼 때와 행을 잠근 뒤 남은 값을 확인할 때만 잡는다.
+     * 반영이 끝난 회원은 목록 버전을 다시 올려서, 반영 전에 캐시된 목록이 쓰이지 않게 한다.
+     * 실패하면 그 사이에 새로 들어온 값이 없는 항목만 다시 대기열에 넣고,
+     * 연속으로 max-retries번 실패하면 그 회원의 배치를 버린다.
+     */
+    public synchronized void flush() {
+        for (String userId : new ArrayList<>(pending.keySet())) {
+            flushUser(userId);
+        }
+    }
+
+    private void flushUser(String userId) {
+        Map<String, Boolean> batch = drain(userId);
+        if (batch == null) return;
+
+        try {
+            MapSqlParameterSource lockParams = new MapSqlParameterSource()
+                    .addValue("ids", new ArrayList<>(batch.keySet()))
+                    .addValue("userId", userId);
+            // 요청 스레드가 아니므로 회원의 샤드를 직접 지정
+            // 목록 버전은 반영과 같은 트랜잭션에서 올림
+            ShardContext.runOn(shardDirectory.shardOf(userId), () ->
+                    transactionTemplate.executeWithoutResult(status -> {
+                        namedJdbcTemplate.queryForList(LOCK_SQL, lockParams, String.class);
+
+                        // 행을 잠근 뒤에 확인하므로, 여기서 빠져 있지 않은 할 일은 바로 수정이 이 커밋을 기다림
+                        Map<String, Boolean> remaining;
+                        synchronized (lockFor(userId)) {
+                            remaining = new HashMap<>(batch);
+                        }
+                        if (remaining.isEmpty()) return;
+
+                        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                        List<Object[]> args = remaining.entrySet().stream()
+                                .map(e -> new Object[]{e.getValue(), e.getValue() ? now : null, e.getValue(), e.getKey(), userId})
+                                .collect(Collectors.toList());
+                        List<TodoDetailResponseDTO> flushed = remaining.entrySet().stream()
+                                .map(e -> pendingDto(e.getKey(), e.getValue()))
+                                .collect(Collectors.toList());
+                        jdbcTemplate.batchUpdate(UPDATE_SQL, args);
+                        todoVersionTracker.markChanged(userId, TodoChangeType.UPDATED, flushed);
+                    }));
+            failures.remove(userId);
+        } catch (RuntimeException e) {
+            int failed = failures.merge(userId, 1, Integer::sum);
+            if (failed > maxRetries) {
+                failures.remove(userId);
+                log.error("할 일 완료 여부 반영을 {}번 실패해서 버립니다. - user: {}, 버린 변경: {}",
+                        failed, userId, batch, e);
+            } else {
+                log.error("할 일 완료 여부 일괄 반영 실패 ({}/{}) - user: {}, size: {}",
+                        failed, maxRetries, userId, batch.size(), e);
+                requeue(userId, batch);
+            }
+        } finally {
+            synchronized (lockFor(userId)) {
+                inFlight.remove(userId);
+            }
+        }
+    }
+
+    // 회원의 대기 중인 변경을 반영 중 상태로 옮김 (조회 시 어느 한 쪽에는 항상 보이도록 compute 안에서 옮긴다)
+    private Map<String, Boolean> drain(String userId) {
+        AtomicReference<Map<String, Boolean>> drained = new AtomicReference<>();
+        synchronized (lockFor(userId)) {
+            pending.computeIfPresent(userId, (id, todos) -> {
+                inFlight.put(userId, todos);
+                size.addAndGet(-todos.size());
+                drained.set(todos);
+                return null;
+            });
+        }
+        return drained.get();
+    }
+
+    // 실패한 배치 중 그 사이에 버려지지도, 새 값이 들어오지도 않은 항목만 다시 대기열에 넣음
+    private void requeue(String userId, Map<String, Boolean> batch) {
+        synchronized (lockFor(userId)) {
+            if (batch.isEmpty()) return;
+            pending.compute(userId, (id, todos) -> {
+                if (todos == null) todos = new ConcurrentHashMap<>();
+                for (Map.Entry<String, Boolean> e : batch.entrySet()) {
+                    if (todos.putIfAbsent(e.getKey(), e.getValue()) == null) size.incrementAndGet();
+                }
+                return todos;
+            });
+        }
+    }
+
+    private Object lockFor(String userId) {
+        return userLocks[Math.floorMod(userId.hashCode(), userLocks.length)];
+    }
+
+    private TodoDetailResponseDTO pendingDto(String todoId, boolean done) {
+        return TodoDetailResponseDTO.builder()
+                .id(todoId)
+                .done(done)
+                .build();
+    }
+
+}
@@ -0,0 +1,287 @@
+package com.example.todo.todoapi.service;
+
+import com.example.todo.TimeOrderedIdGenerator;
+import com.example.todo.auth.TokenUserInfo;
+import com.example.todo.todoapi.dto.response.TodoChangeType;
+import com.example.todo.todoapi.dto.response.TodoExportDTO;
+import com.example.todo.todoapi.dto.response.TodoImportResponseDTO;
+import com.example.todo.todoapi.entity.Todo;
+import com.example.todo.todoapi.entity.TodoArchive;
+import com.example.todo.todoapi.repository.TodoArchiveRepository;
+import com.example.todo.todoapi.repository.TodoRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+@Service
+@Slf4j
+// 할 일 전체를 NDJSON(한 줄에 JSON 하나)으로 내보내고 가져오는 서비스
+// 행 수와 관계없이 메모리 사용량이 일정하도록, 내보낼 때는 한 행씩 읽어서 바로 쓰고
+// 가져올 때는 한 줄씩 읽어서 batchSize개씩 JDBC 배치로 저장한다.
+public class TodoTransferService {
+
+    // 같은 id가 이미 있다면(보관된 할 일 포함) 건너뜀 -> 같은 파일을 다시 가져와도 중복되지 않음
+    // (다른 회원의 할 일 id와 겹치는 경우에도 덮어쓰지 않고 건너뜀)
+    private static final String INSERT_SQL = "INSERT IGNORE INTO tbl_todo" +
+            " (todo_id, title, done, completed_at, create_date, version, user_id)" +
+            " SELECT ?, ?, ?, ?, ?, 0, ? FROM DUAL" +
+            " WHERE NOT EXISTS (SELECT 1 FROM tbl_todo_archive WHERE todo_id = ?)";
+
+    // 묶음의 id 중 이미 있는 할 일 (삭제 표시된 할 일 포함)
+    private static final String EXISTING_SQL = "SELECT todo_id, user_id, deleted_at FROM tbl_todo WHERE todo_id IN (:ids)";
+    private static final String ARCHIVED_SQL = "SELECT todo_id FROM tbl_todo_archive WHERE todo_id IN (:ids)";
+
+    // 드라이버가 건별 결과를 주지 않은 경우 실제로 저장된 행 수를 셈
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM tbl_todo WHERE user_id = :userId AND todo_id IN (:ids)";
+
+    private static final int MAX_TITLE_LENGTH = 30;
+
+    private final TodoRepository todoRepository;
+    private final TodoArchiveRepository todoArchiveRepository;
+    private final TodoQuotaService todoQuotaService;
+    private final TodoVersionTracker todoVersionTracker;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectWriter lineWriter;
+    private final ObjectReader lineReader;
+    private final int batchSize;
+
+    public TodoTransferService(
+            TodoRepository todoRepository,
+            TodoArchiveRepository todoArchiveRepository,
+            TodoQuotaService todoQuotaService,
+            TodoVersionTracker todoVersionTracker,
+            EntityManager entityManager,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            @Value("${todo.import.batch-size:500}") int batchSize
+    ) {
+        this.todoRepository = todoRepository;
+        this.todoArchiveRepository = todoArchiveRepository;
+        this.todoQuotaService = todoQuotaService;
+        this.todoVersionTracker = todoVersionTracker;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.transactionTemplate = transactionTemplate;
+        this.lineWriter = objectMapper.writerFor(TodoExportDTO.class);
+        this.lineReader = objectMapper.readerFor(TodoExportDTO.class);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * 회원의 할 일을 NDJSON으로 씀 (보관된 할 일을 먼저, 그 다음 진행 중인 할 일을 각각 등록순으로)
+     * StreamingResponseBody 안에서(요청 스레드가 아닌 곳에서) 호출되므로 트랜잭션을 여기서 시작한다.
+     * @param userId - 로그인 한 회원의 식별 코드
+     * @param out - 응답 스트림
+     * @return - 내보낸 할 일 개수
+     */
+    @Transactional(readOnly = true)
+    public long export(String userId, OutputStream out) throws IOException {
+        long count = 0;
+        try (Stream<TodoArchive> archives = todoArchiveRepository.streamAllByUserId(userId)) {
+            Iterator<TodoArchive> it = archives.iterator();
+            while (it.hasNext()) {
+                TodoArchive archive = it.next();
+                out.write(lineWriter.writeValueAsBytes(new TodoExportDTO(archive)));
+                out.write('\n');
+                entityManager.detach(archive);
+                count++;
+            }
+        }
+        try (Stream<Todo> todos = todoRepository.streamAllByUserId(userId)) {
+            Iterator<Todo> it = todos.iterator();
+            while (it.hasNext()) {
+                Todo todo = it.next();
+                out.write(lineWriter.writeValueAsBytes(new TodoExportDTO(todo)));
+                out.write('\n');
+                // 영속성 컨텍스트에 엔터티가 쌓이지 않도록 바로 분리
+                entityManager.detach(todo);
+                count++;
+            }
+        }
+        out.flush();
+        log.info("할 일 {}개 내보내기 완료 - user: {}", count, userId);
+        return count;
+    }
+
+    /**
+     * NDJSON을 한 줄씩 읽어서 batchSize개씩 저장
+     * 묶음마다 트랜잭션을 따로 커밋하므로 중간에 실패해도 앞에서 저장된 묶음은 유지된다.
+     * 묶음마다 이미 있는 id를 빼고 남은 건수만큼 작성 한도를 확인한다.
+     * 삭제 표시된 할 일과 id가 같은 줄은 복원하지 않고 건너뛰며, 그 건수를 skippedDeleted로 알려준다.
+     * @param userInfo - 로그인 한 회원 정보
+     * @param in - 요청 body 스트림
+     * @return - 가져오기 결과 (한도 초과, 형식 오류로 중단되었다면 error에 사유)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TodoImportResponseDTO importTodos(TokenUserInfo userInfo, InputStream in) throws IOException {
+        String userId = userInfo.getUserId();
+        int imported = 0;
+        int skipped = 0;
+        int deleted = 0;
+        String error = null;
+
+        List<TodoExportDTO> batch = new ArrayList<>(batchSize);
+        try (MappingIterator<TodoExportDTO> lines = lineReader.readValues(in)) {
+            while (true) {
+                TodoExportDTO line;
+                try {
+                    if (!lines.hasNextValue()) break;
+                    line = lines.nextValue();
+                } catch (JsonProcessingException e) {
+                    // JSON 자체가 깨진 경우에는 다음 줄을 찾을 수 없으므로 중단
+                    error = "잘못된 형식의 줄이 있어 가져오기를 중단했습니다."
+                            + (e.getLocation() == null ? "" : " - line: " + e.getLocation().getLineNr());
+                    break;
+                }
+
+                if (!isValid(line)) {
+                    skipped++;
+                    continue;
+                }
+                batch.add(line);
+
+                if (batch.size() == batchSize) {
+                    BatchResult saved = saveBatch(userInfo, batch);
+                    imported += saved.getInserted();
+                    skipped += batch.size() - saved.getInserted();
+                    deleted += saved.getDeleted();
+                    batch.clear();
+                }
+            }
+            if (error == null && !batch.isEmpty()) {
+                BatchResult saved = saveBatch(userInfo, batch);
+                imported += saved.getInserted();
+                skipped += batch.size() - saved.getInserted();
+                deleted += saved.getDeleted();
+            }
+        } catch (IllegalStateException e) {
+            // 작성 한도 초과
+            error = e.getMessage();
+        }
+
+        log.info("할 일 가져오기 - user: {}, 저장: {}, 건너뜀: {} (삭제된 할 일: {})", userId, imported, skipped, deleted);
+
+        return TodoImportResponseDTO.builder()
+                .error(error)
+                .imported(imported)
+                .skipped(skipped)
+                .skippedDeleted(deleted)
+                .version(todoVersionTracker.listVersion(userId))
+                .build();
+    }
+
+    // 한 묶음을 하나의 트랜잭션으로 저장하고 실제로 저장된 건수를 리턴
+    // 이미 있는 id(보관된 할 일, 삭제 표시된 할 일 포함)는 먼저 조회해서 빼고, 남은 것만 작성 한도를 확인한 뒤 저장한다.
+    // 삭제 표시된 할 일과 id가 같아서 건너뛴 건은 따로 세어서 알려준다. (복원되지 않았다는 것을 알 수 있도록)
+    private BatchResult saveBatch(TokenUserInfo userInfo, List<TodoExportDTO> batch) {
+        String userId = userInfo.getUserId();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        // id -> INSERT 파라미터 (파일 안에서 같은 id가 반복되면 처음 것만)
+        Map<String, Object[]> rows = new LinkedHashMap<>();
+        for (TodoExportDTO dto : batch) {
+            String id = (dto.getId() == null || dto.getId().isBlank())
+                    ? TimeOrderedIdGenerator.nextId() : dto.getId();
+            Timestamp createDate = dto.getCreateDate() == null ? now : Timestamp.valueOf(dto.getCreateDate());
+            // 파일에는 완료 시각이 없으므로 완료된 할 일은 가져온 시각을 완료 시각으로 함 (가져오자마자 보관되지 않도록)
+            Timestamp completedAt = dto.isDone() ? now : null;
+            rows.putIfAbsent(id, new Object[]{id, dto.getTitle(), dto.isDone(), completedAt, createDate, userId, id});
+        }
+
+        BatchResult saved = transactionTemplate.execute(status -> {
+            MapSqlParameterSource idParams = new MapSqlParameterSource("ids", new ArrayList<>(rows.keySet()));
+            Set<String> existing = new HashSet<>();
+            int[] deleted = {0};
+            namedJdbcTemplate.query(EXISTING_SQL, idParams, rs -> {
+                existing.add(rs.getString("todo_id"));
+                if (rs.getTimestamp("deleted_at") != null && userId.equals(rs.getString("user_id"))) {
+                    deleted[0]++;
+                }
+            });
+            existing.addAll(namedJdbcTemplate.queryForList(ARCHIVED_SQL, idParams, String.class));
+
+            List<Object[]> args = new ArrayList<>(rows.size());
+            rows.forEach((id, row) -> {
+                if (!existing.contains(id)) args.add(row);
+            });
+            if (args.isEmpty()) return new BatchResult(0, deleted[0]);
+
+            todoQuotaService.acquire(userId, userInfo.getRole(), args.size());
+
+            // 조회한 뒤에 다른 요청이 같은 id를 저장했다면 INSERT IGNORE로 건너뜀 (결과 0)
+            int inserted = 0;
+            boolean noInfo = false;
+            for (int result : jdbcTemplate.batchUpdate(INSERT_SQL, args)) {
+                if (result > 0) inserted++;
+                // 드라이버가 배치를 합쳐서 보내면(rewriteBatchedStatements) 건별 결과 대신 SUCCESS_NO_INFO(-2)가 옴
+                // 이 경우 건너뛴 행도 -2이므로 결과로는 셀 수 없음
+                if (result == Statement.SUCCESS_NO_INFO) noInfo = true;
+            }
+            if (noInfo) {
+                List<Object> ids = new ArrayList<>(args.size());
+                args.forEach(row -> ids.add(row[0]));
+                Integer counted = namedJdbcTemplate.queryForObject(COUNT_SQL,
+                        new MapSqlParameterSource("ids", ids).addValue("userId", userId), Integer.class);
+                inserted = counted == null ? 0 : counted;
+            }
+
+            todoQuotaService.release(userId, args.size() - inserted);
+            if (inserted > 0) {
+                // 목록 버전은 저장과 같은 트랜잭션에서 올림
+                todoVersionTracker.markChanged(userId, TodoChangeType.REFRESHED, List.of());
+            }
+            return new BatchResult(inserted, deleted[0]);
+        });
+        return saved == null ? new BatchResult(0, 0) : saved;
+    }
+
+    private boolean isValid(TodoExportDTO line) {
+        if (line == null || line.getTitle() == null || line.getTitle().isBlank()) return false;
+        if (line.getTitle().length() > MAX_TITLE_LENGTH) return false;
+        return line.getId() == null || line.getId().length() <= 32;
+    }
+
+    // 한 묶음의 저장 결과
+    @Getter
+    @AllArgsConstructor
+    private static class BatchResult {
+        private final int inserted; // 저장된 건수
+        private final int deleted; // 삭제 표시된 할 일과 id가 같아서 건너뛴 건수
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.example.todo.todoapi.service;
+
+import com.example.todo.todoapi.dto.response.TodoChangeType;
+import com.example.todo.todoapi.dto.response.TodoDetailResponseDTO;
+import com.example.todo.todoapi.entity.TodoCounter;
+import com.example.todo.todoapi.event.TodoChangedEvent;
+import com.example.todo.todoapi.repository.TodoCounterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+@RequiredArgsConstructor
+// 역할: 회원별 할 일 목록의 버전 번호를 관리하는 객체.
+// 목록이 바뀔 때마다(등록, 수정, 삭제) 버전이 증가하므로, 클라이언트는 버전만 보고 자기 목록이 최신인지 알 수 있다.
+//
+// - 버전은 카운터 행(tbl_todo_counter.list_version)에 저장되고, 목록을 바꾸는 트랜잭션에서 함께 올라간다.
+//   모든 서버가 같은 값을 보므로 ETag, 목록 캐시, 검색 색인, 변경 피드의 이벤트 id가 모두 이 버전을 쓴다.
+// - 새 버전은 max(이전 버전 + 1, 지금 시각(ms))이다.
+//   샤드를 옮겨서 카운터 행이 새로 만들어져도 예전 샤드에서 발급된 버전과 겹치지 않는다.
+// - 커밋된 뒤에 이 서버 안에 TodoChangedEvent를 발행한다.
+//   다른 서버의 변경은 이벤트가 오지 않으므로, 필요한 곳(변경 피드, 검색 색인)에서 저장된 버전과 비교한다.
+public class TodoVersionTracker {
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final TodoCounterRepository todoCounterRepository;
+
+    /**
+     * 회원의 저장된 목록 버전을 리턴 (카운터 행이 없다면 0)
+     * 회원의 샤드에서 호출해야 한다. (요청 스레드라면 이미 지정되어 있음)
+     * @param userId - 회원 식별 코드
+     * @return - 목록 버전
+     */
+    public long listVersion(String userId) {
+        return todoCounterRepository.findListVersion(userId).orElse(0L);
+    }
+
+    /**
+     * 여러 회원의 저장된 목록 버전 (카운터 행이 없는 회원은 빠짐)
+     * 회원들이 모두 현재 지정된 샤드에 있어야 한다.
+     */
+    public Map<String, Long> listVersions(Collection<String> userIds) {
+        return todoCounterRepository.findAllByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(TodoCounter::getUserId, TodoCounter::getListVersion));
+    }
+
+    /**
+     * 회원의 목록이 변경되었음을 기록.
+     * 목록 버전은 호출한 쪽의 트랜잭션에서 올리고(카운터 행을 잠금), TodoChangedEvent는 커밋된 뒤에 발행한다.
+     * (커밋 전에 발행하면, 받은 쪽에서 조회한 목록에 아직 이번 변경이 없을 수 있음)
+     * @param userId - 목록이 변경된 회원의 식별 코드
+     * @param type - 변경 종류
+     * @param todos - 변경된 할 일 목록 (REFRESHED라면 빈 리스트)
+     * @throws IllegalStateException - 트랜잭션 밖에서 호출한 경우 (DB에 반영되지 않은 변경은 버전을 올리지 않음)
+     */
+    public void markChanged(String userId, TodoChangeType type, List<TodoDetailResponseDTO> todos) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("목록 변경은 변경과 같은 트랜잭션 안에서 기록해야 합니다.");
+        }
+
+        long previous = lockListVersion(userId);
+        long version = Math.max(previous + 1, System.currentTimeMillis());
+        todoCounterRepository.updateListVersion(userId, version);
+        log.debug("할 일 목록 버전 변경 - user: {}, version: {}", userId, version);
+
+        TodoChangedEvent event = new TodoChangedEvent(userId, version, previous, type, todos);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eventPublisher.publishEvent(event);
+            }
+        });
+    }
+
+    // 한 건만 변경된 경우
+    public void markChanged(String userId, TodoChangeType type, TodoDetailResponseDTO todo) {
+        markChanged(userId, type, List.of(todo));
+    }
+
+    // 카운터 행을 잠그고 현재 목록 버전을 리턴 (행이 없는 기존 회원이라면 행을 만든 뒤 잠금)
+    private long lockListVersion(String userId) {
+        return todoCounterRepository.findListVersionForUpdate(userId).orElseGet(() -> {
+            todoCounterRepository.initialize(userId);
+            return todoCounterRepository.findListVersionForUpdate(userId).orElse(0L);
+        });
+    }
+
+}
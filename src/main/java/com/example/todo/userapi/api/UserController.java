@@ -1,8 +1,11 @@
 package com.example.todo.userapi.api;
 
 import com.example.todo.auth.TokenUserInfo;
+import com.example.todo.exception.InvalidRefreshTokenException;
 import com.example.todo.exception.NoRegisteredArgumentsException;
+import com.example.todo.exception.PasswordHashingBusyException;
 import com.example.todo.userapi.dto.request.LoginRequestDTO;
+import com.example.todo.userapi.dto.request.RefreshRequestDTO;
 import com.example.todo.userapi.dto.request.UserRequestSignUpDTO;
 import com.example.todo.userapi.dto.response.LoginResponseDTO;
 import com.example.todo.userapi.dto.response.UserSignUpResponseDTO;
@@ -11,6 +14,7 @@ import com.example.todo.userapi.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.ZeroCopyHttpOutputMessage;
@@ -79,6 +83,8 @@ public class UserController {
 
             UserSignUpResponseDTO responseDTO = userService.create(dto, uploadedFilePath);
             return ResponseEntity.ok().body(responseDTO);
+        } catch (PasswordHashingBusyException e) {
+            return busy(e);
         } catch (RuntimeException e) {
             log.info("이메일 중복!");
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -100,6 +106,8 @@ public class UserController {
 
             return ResponseEntity.ok().body(responseDTO);
 
+        } catch (PasswordHashingBusyException e) {
+            return busy(e);
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.badRequest()
@@ -107,6 +115,36 @@ public class UserController {
         }
     }
 
+    // 비밀번호 해싱이 밀려 있을 때는 바로 503으로 응답하고, 언제 다시 시도할지 알려줌
+    private ResponseEntity<?> busy(PasswordHashingBusyException e) {
+        log.warn("비밀번호 해싱 대기열 포화 - {}초 후 재시도 안내", e.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
+    // 액세스 토큰 재발급 요청 처리 (로그인 응답의 refreshToken을 보냄)
+    // 비밀번호를 다시 검증하지 않으므로 로그인보다 훨씬 가볍다.
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(
+            @Validated @RequestBody RefreshRequestDTO dto,
+            BindingResult result
+    ) {
+        if(result.hasErrors()) {
+            return ResponseEntity.badRequest()
+                    .body(result.getFieldError());
+        }
+
+        try {
+            LoginResponseDTO responseDTO = userService.refresh(dto.getRefreshToken());
+            return ResponseEntity.ok().body(responseDTO);
+        } catch (InvalidRefreshTokenException e) {
+            log.warn("토큰 재발급 실패 - {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(e.getMessage());
+        }
+    }
+
     // 일반 회원을 프리미엄 회원으로 승격하는 요청 처리
     @PutMapping("/promote")
     // 권한 검사 (해당 권한이 아니라면 인가처리 거부 -> 403 코드 리턴)
@@ -0,0 +1,17 @@
+package com.example.todo.userapi.dto.request;
+
+import lombok.*;
+
+import javax.validation.constraints.NotBlank;
+
+// 액세스 토큰 재발급 요청 (로그인 응답으로 받은 리프레시 토큰)
+@Setter @Getter
+@ToString(exclude = "refreshToken") @EqualsAndHashCode
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class RefreshRequestDTO {
+
+    @NotBlank
+    private String refreshToken;
+
+}
@@ -8,7 +8,7 @@ import java.time.LocalDate;
 
 // 로그인 성공 후 클라이언트에게 전송할 데이터 객체
 @Getter
-@ToString @EqualsAndHashCode
+@ToString(exclude = {"token", "refreshToken"}) @EqualsAndHashCode
 @NoArgsConstructor @AllArgsConstructor
 @Builder
 public class LoginResponseDTO {
@@ -22,12 +22,21 @@ public class LoginResponseDTO {
     private String token; // 인증 토큰
     private String role; // 권한
 
+    // 액세스 토큰이 만료되면 /api/auth/refresh 로 보내서 재발급 (한 번 쓰면 새 토큰으로 바뀜)
+    // 리프레시 토큰을 새로 발급하지 않은 응답(등급 변경 등)이라면 null -> 기존 토큰을 계속 사용
+    private String refreshToken;
+
     public LoginResponseDTO(User user, String token) {
+        this(user, token, null);
+    }
+
+    public LoginResponseDTO(User user, String token, String refreshToken) {
         this.email = user.getEmail();
         this.userName = user.getUserName();
         this.joinDate = LocalDate.from(user.getJoinDate());
         this.token = token;
         this.role = String.valueOf(user.getRole());
+        this.refreshToken = refreshToken;
     }
 }
 
@@ -0,0 +1,64 @@
+package com.example.todo.userapi.entity;
+
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.GenericGenerator;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 리프레시 토큰
+// 토큰 원문은 저장하지 않고 해시만 저장한다. (DB가 유출되어도 토큰으로 사용할 수 없도록)
+// 한 번 사용하면 새 토큰으로 교체(rotation)되고, 같은 로그인에서 이어진 토큰들은 같은 familyId를 가진다.
+@Getter
+@ToString @EqualsAndHashCode(of = "id")
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "tbl_refresh_token",
+        indexes = {
+                @Index(name = "idx_refresh_family", columnList = "familyId"),
+                @Index(name = "idx_refresh_user", columnList = "user_id"),
+                @Index(name = "idx_refresh_expires", columnList = "expiresAt")
+        })
+public class RefreshToken {
+
+    @Id
+    @Column(length = 32)
+    @GeneratedValue(generator = "time-ordered-id")
+    @GenericGenerator(name = "time-ordered-id", strategy = "com.example.todo.TimeOrderedIdGenerator")
+    private String id;
+
+    @Column(nullable = false, unique = true, length = 64)
+    private String tokenHash; // 토큰 원문의 SHA-256 해시
+
+    @Column(name = "user_id", nullable = false, length = 32)
+    private String userId; // 재발급할 때 회원 엔터티를 조인할 필요가 없으므로 id만 저장
+
+    @Column(nullable = false, length = 32)
+    private String familyId; // 처음 로그인할 때 발급된 토큰부터 이어지는 토큰들의 묶음
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    private LocalDateTime usedAt; // 새 토큰으로 교체된 시각 (사용 전이면 null)
+
+    private LocalDateTime revokedAt; // 로그아웃, 재사용 감지로 폐기된 시각 (폐기 전이면 null)
+
+    // 새 토큰으로 교체 가능한지 (사용, 폐기, 만료되지 않은 토큰)
+    public boolean isUsable(LocalDateTime now) {
+        return usedAt == null && revokedAt == null && now.isBefore(expiresAt);
+    }
+
+    // 이미 사용했거나 폐기된 토큰이 다시 들어온 경우 (토큰 탈취 의심)
+    public boolean isReused() {
+        return usedAt != null || revokedAt != null;
+    }
+
+    public void markUsed(LocalDateTime now) {
+        this.usedAt = now;
+    }
+}
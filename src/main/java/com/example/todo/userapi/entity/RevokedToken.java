@@ -0,0 +1,28 @@
+package com.example.todo.userapi.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 폐기된 액세스 토큰 (로그아웃 등)
+// 토큰이 원래 만료될 시각(expiresAt)이 지나면 폐기 여부를 확인할 필요가 없으므로 정리된다.
+@Getter
+@ToString @EqualsAndHashCode(of = "tokenId")
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "tbl_revoked_token",
+        indexes = @Index(name = "idx_revoked_expires", columnList = "expiresAt"))
+public class RevokedToken {
+
+    @Id
+    @Column(length = 32)
+    private String tokenId; // 토큰의 jti
+
+    @Column(name = "user_id", nullable = false, length = 32)
+    private String userId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt; // 토큰의 만료 시각
+}
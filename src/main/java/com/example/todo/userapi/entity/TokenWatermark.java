@@ -0,0 +1,35 @@
+package com.example.todo.userapi.entity;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+// 회원별 토큰 폐기 기준 시각
+// revokedBefore 이전 또는 같은 시각(초 단위)에 발급된(iat) 회원의 액세스 토큰은 모두 폐기된 것으로 본다. (등급 변경, 계정 도용 등)
+// 그 토큰들이 모두 만료되는 시각(expiresAt)이 지나면 정리된다.
+@Getter
+@ToString @EqualsAndHashCode(of = "userId")
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "tbl_token_watermark",
+        indexes = @Index(name = "idx_watermark_expires", columnList = "expiresAt"))
+public class TokenWatermark {
+
+    @Id
+    @Column(name = "user_id", length = 32)
+    private String userId;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedBefore;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // 기준 시각은 앞으로만 이동 (늦게 도착한 요청이 기준을 되돌리지 않도록)
+    public void raise(LocalDateTime revokedBefore, LocalDateTime expiresAt) {
+        if (revokedBefore.isAfter(this.revokedBefore)) this.revokedBefore = revokedBefore;
+        if (expiresAt.isAfter(this.expiresAt)) this.expiresAt = expiresAt;
+    }
+}
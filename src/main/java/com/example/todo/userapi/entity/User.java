@@ -1,6 +1,8 @@
 package com.example.todo.userapi.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.GenericGenerator;
@@ -16,12 +18,17 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "tbl_user")
+// 2차 캐시: 할 일 API마다 회원을 id로 조회하므로 DB 대신 캐시에서 찾는다.
+// 엔터티를 수정(등급 변경, 카카오 토큰 저장 등)하면 커밋할 때 캐시도 함께 갱신된다.
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
 public class User {
 
     @Id
-    @Column(name = "user_id")
-    @GeneratedValue(generator = "system-uuid")
-    @GenericGenerator(name = "system-uuid", strategy = "uuid")
+    @Column(name = "user_id", length = 32)
+    @GeneratedValue(generator = "time-ordered-id")
+    // 시간 순서대로 정렬되는 32자리 id (기존 uuid 전략과 같은 형식)
+    @GenericGenerator(name = "time-ordered-id", strategy = "com.example.todo.TimeOrderedIdGenerator")
     private String id; // 계정명이 아니라 식별 코드
 
     @Column(nullable = false, unique = true)
@@ -50,6 +57,11 @@ public class User {
         this.role = role;
     }
 
+    // 비밀번호 수정 메서드 (암호화된 비밀번호를 받음)
+    public void changePassword(String encodedPassword) {
+        this.password = encodedPassword;
+    }
+
     // 카카오 계정의 아이디를 자동생성 uuid에 업데이트 해주기 위한 메서드
     public void setAccessToken(String accessToken) { this.accessToken = accessToken; }
 }
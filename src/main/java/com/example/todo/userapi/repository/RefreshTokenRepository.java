@@ -0,0 +1,44 @@
+package com.example.todo.userapi.repository;
+
+import com.example.todo.userapi.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface RefreshTokenRepository
+        extends JpaRepository<RefreshToken, String> {
+
+    // 토큰 해시로 조회하면서 행을 잠금
+    // 같은 토큰으로 동시에 재발급을 요청해도 한 요청만 교체에 성공하고, 나머지는 재사용으로 처리된다.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM RefreshToken r WHERE r.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHashForUpdate(@Param("tokenHash") String tokenHash);
+
+    // 벌크 UPDATE/DELETE는 영속성 컨텍스트를 거치지 않으므로, 실행 전에 변경 내용을 반영(flush)하고
+    // 실행 후에 비워서(clear) 같은 트랜잭션에서 다시 조회할 때 폐기된 상태가 보이게 한다.
+
+    // 같은 로그인에서 이어진 토큰을 모두 폐기 (재사용 감지)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshToken r SET r.revokedAt = :now" +
+            " WHERE r.familyId = :familyId AND r.revokedAt IS NULL")
+    int revokeFamily(@Param("familyId") String familyId, @Param("now") LocalDateTime now);
+
+    // 회원의 토큰을 모두 폐기 (로그아웃)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshToken r SET r.revokedAt = :now" +
+            " WHERE r.userId = :userId AND r.revokedAt IS NULL")
+    int revokeAllByUserId(@Param("userId") String userId, @Param("now") LocalDateTime now);
+
+    // 만료된 지 오래된 토큰 정리
+    // 만료 직후에는 재사용 감지를 위해 남겨둔다.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :before")
+    int deleteExpiredBefore(@Param("before") LocalDateTime before);
+
+}
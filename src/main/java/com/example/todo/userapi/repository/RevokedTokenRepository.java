@@ -0,0 +1,24 @@
+package com.example.todo.userapi.repository;
+
+import com.example.todo.userapi.entity.RevokedToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevokedTokenRepository
+        extends JpaRepository<RevokedToken, String> {
+
+    // 아직 만료되지 않은 폐기 토큰 id (블룸 필터를 만들 때 사용)
+    @Query("SELECT r.tokenId FROM RevokedToken r WHERE r.expiresAt > :now")
+    List<String> findActiveTokenIds(@Param("now") LocalDateTime now);
+
+    // 만료된 토큰 정리
+    @Modifying
+    @Query("DELETE FROM RevokedToken r WHERE r.expiresAt < :now")
+    int deleteExpiredBefore(@Param("now") LocalDateTime now);
+
+}
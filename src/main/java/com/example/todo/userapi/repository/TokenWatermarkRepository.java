@@ -0,0 +1,23 @@
+package com.example.todo.userapi.repository;
+
+import com.example.todo.userapi.entity.TokenWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TokenWatermarkRepository
+        extends JpaRepository<TokenWatermark, String> {
+
+    // 폐기 기준 시각이 아직 유효한 회원 id (블룸 필터를 만들 때 사용)
+    @Query("SELECT w.userId FROM TokenWatermark w WHERE w.expiresAt > :now")
+    List<String> findActiveUserIds(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM TokenWatermark w WHERE w.expiresAt < :now")
+    int deleteExpiredBefore(@Param("now") LocalDateTime now);
+
+}
@@ -0,0 +1,122 @@
+package com.example.todo.userapi.service;
+
+import com.example.todo.auth.TokenHashing;
+import com.example.todo.exception.InvalidRefreshTokenException;
+import com.example.todo.userapi.entity.RefreshToken;
+import com.example.todo.userapi.repository.RefreshTokenRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Service
+@Slf4j
+// 리프레시 토큰 발급, 교체(rotation), 폐기를 담당하는 서비스
+//
+// - 토큰은 추측할 수 없는 랜덤 문자열이고, DB에는 해시만 저장한다.
+// - 재발급할 때마다 사용한 토큰은 사용 처리하고 새 토큰을 발급한다.
+// - 이미 사용한 토큰이 다시 들어오면 탈취된 것으로 보고, 같은 로그인에서 이어진 토큰을 모두 폐기한다.
+//   (정상 사용자도 다시 로그인해야 하지만, 훔친 토큰으로 계속 재발급받는 것을 막을 수 있음)
+//
+// jwt.refresh-token-ttl: 리프레시 토큰 유효 시간 (기본 14일, 교체할 때마다 다시 계산)
+// jwt.refresh-token-retention: 만료 후 재사용 감지를 위해 보관하는 시간 (기본 1일)
+public class RefreshTokenService {
+
+    // 토큰 원문 길이 (256비트)
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration refreshTokenTtl;
+    private final Duration retention;
+
+    public RefreshTokenService(
+            RefreshTokenRepository refreshTokenRepository,
+            @Value("${jwt.refresh-token-ttl:14d}") Duration refreshTokenTtl,
+            @Value("${jwt.refresh-token-retention:1d}") Duration retention
+    ) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenTtl = refreshTokenTtl;
+        this.retention = retention;
+    }
+
+    /**
+     * 로그인할 때 새 리프레시 토큰을 발급 (새 토큰 묶음 시작)
+     * @param userId - 로그인 한 회원의 식별 코드
+     * @return - 클라이언트에게 전달할 토큰 원문 (DB에는 저장되지 않음)
+     */
+    @Transactional
+    public String issue(String userId) {
+        String familyId = UUID.randomUUID().toString().replace("-", "");
+        return save(userId, familyId);
+    }
+
+    /**
+     * 리프레시 토큰을 사용 처리하고 같은 묶음의 새 토큰을 발급
+     * 재사용을 감지해서 폐기한 내용은 예외가 발생해도 커밋되어야 하므로 롤백하지 않는다.
+     * @param rawToken - 클라이언트가 보낸 토큰 원문
+     * @return - 토큰 주인의 id와 새 토큰 원문
+     * @throws InvalidRefreshTokenException - 없거나, 만료되었거나, 이미 사용된 토큰인 경우
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public Rotation rotate(String rawToken) {
+        LocalDateTime now = LocalDateTime.now();
+
+        RefreshToken found = refreshTokenRepository.findByTokenHashForUpdate(TokenHashing.sha256(rawToken))
+                .orElseThrow(() -> new InvalidRefreshTokenException("유효하지 않은 리프레시 토큰입니다."));
+
+        if (found.isReused()) {
+            int revoked = refreshTokenRepository.revokeFamily(found.getFamilyId(), now);
+            log.warn("리프레시 토큰 재사용 감지 - user: {}, 폐기한 토큰: {}", found.getUserId(), revoked);
+            throw new InvalidRefreshTokenException("이미 사용된 리프레시 토큰입니다. 다시 로그인 해 주세요.");
+        }
+        if (!found.isUsable(now)) {
+            throw new InvalidRefreshTokenException("리프레시 토큰이 만료되었습니다. 다시 로그인 해 주세요.");
+        }
+
+        found.markUsed(now);
+        return new Rotation(found.getUserId(), save(found.getUserId(), found.getFamilyId()));
+    }
+
+    // 회원의 리프레시 토큰을 모두 폐기 (로그아웃)
+    @Transactional
+    public int revokeAll(String userId) {
+        return refreshTokenRepository.revokeAllByUserId(userId, LocalDateTime.now());
+    }
+
+    // 만료 후 보관 시간이 지난 토큰을 주기적으로 정리
+    @Scheduled(fixedDelayString = "${jwt.refresh-token-cleanup-millis:3600000}")
+    @Transactional
+    public void cleanUp() {
+        int deleted = refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("만료된 리프레시 토큰 {}개 정리", deleted);
+        }
+    }
+
+    private String save(String userId, String familyId) {
+        String rawToken = TokenHashing.randomToken(TOKEN_BYTES);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(TokenHashing.sha256(rawToken))
+                .userId(userId)
+                .familyId(familyId)
+                .expiresAt(LocalDateTime.now().plus(refreshTokenTtl))
+                .build());
+        return rawToken;
+    }
+
+    // 교체 결과
+    @Getter
+    @AllArgsConstructor
+    public static class Rotation {
+        private final String userId;
+        private final String refreshToken; // 새 토큰 원문
+    }
+
+}
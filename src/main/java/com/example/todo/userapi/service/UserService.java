@@ -1,9 +1,13 @@
 package com.example.todo.userapi.service;
 
+import com.example.todo.auth.PasswordHashingExecutor;
 import com.example.todo.auth.TokenProvider;
+import com.example.todo.auth.TokenRevocationList;
 import com.example.todo.auth.TokenUserInfo;
 import com.example.todo.aws.S3Service;
+import com.example.todo.exception.InvalidRefreshTokenException;
 import com.example.todo.exception.NoRegisteredArgumentsException;
+import com.example.todo.exception.PasswordHashingBusyException;
 import com.example.todo.userapi.dto.request.LoginRequestDTO;
 import com.example.todo.userapi.dto.request.UserRequestSignUpDTO;
 import com.example.todo.userapi.dto.response.KakaoUserDTO;
@@ -19,8 +23,9 @@ import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
@@ -28,6 +33,7 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.File;
 import java.io.IOException;
+import java.time.Instant;
 import java.util.Map;
 import java.util.UUID;
 
@@ -37,8 +43,11 @@ import java.util.UUID;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingExecutor passwordHashingExecutor;
     private final TokenProvider tokenProvider;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationList tokenRevocationList;
+    private final TransactionTemplate transactionTemplate;
     private final S3Service s3Service;
 
     @Value("${kakao.client_id}")
@@ -66,8 +75,8 @@ public class UserService {
             throw new RuntimeException("중복된 이메일 입니다.");
         }
 
-        // 패스워드 인코딩
-        String encoded = passwordEncoder.encode(dto.getPassword());
+        // 패스워드 인코딩 (해싱 전용 스레드에서 실행, 밀려 있으면 PasswordHashingBusyException)
+        String encoded = passwordHashingExecutor.encode(dto.getPassword());
         dto.setPassword(encoded);
 
         // dto를 User Entity로 변환해서 저장
@@ -78,39 +87,98 @@ public class UserService {
 
     }
 
+    // 조회 전용 메서드는 읽기 전용 트랜잭션으로 실행 (replica가 설정되어 있다면 replica에서 조회)
+    @Transactional(readOnly = true)
     public boolean isDuplicate(String email) {
         return userRepository.existsByEmail(email);
     }
 
     // 회원 인증
+    // 비밀번호 검증(BCrypt)은 대기열에서 기다리는 시간까지 수 초가 걸릴 수 있으므로 트랜잭션 밖에서 실행한다.
+    // (트랜잭션 안에서 기다리면 그동안 DB 커넥션을 잡고 있어서, 로그인이 몰릴 때 할 일 API까지 커넥션이 부족해짐)
+    // 1. 짧은 트랜잭션으로 회원 조회 - 가입 직후의 로그인이 복제 지연 때문에 실패하지 않도록 primary에서 조회
+    // 2. 트랜잭션 없이 비밀번호 검증 (필요하면 새 비용으로 다시 해싱)
+    // 3. 짧은 트랜잭션으로 다시 해싱한 비밀번호 저장, 리프레시 토큰 발급
     public LoginResponseDTO authenticate(final LoginRequestDTO dto) {
 
         // 이메일을 통해 회원 정보 조회
-        User user = userRepository.findByEmail(dto.getEmail())
-                .orElseThrow(
-                        () -> new RuntimeException("가입된 회원이 아닙니다.")
-                );
+        User user = transactionTemplate.execute(status ->
+                userRepository.findByEmail(dto.getEmail())
+                        .orElseThrow(
+                                () -> new RuntimeException("가입된 회원이 아닙니다.")
+                        ));
 
         // 패스워드 검증
         String rawPassword = dto.getPassword(); // 입력한 비번
         String encodedPassword = user.getPassword(); // DB에 저장된 암호화된 비번
 
-        if(!passwordEncoder.matches(rawPassword, encodedPassword)) {
+        if(!passwordHashingExecutor.matches(rawPassword, encodedPassword)) {
             throw new RuntimeException("비밀번호가 틀렸습니다.");
         }
 
+        // BCrypt 비용 설정이 바뀌었다면 입력한 비번으로 다시 해싱 (저장은 아래 트랜잭션에서)
+        String rehashed = passwordHashingExecutor.needsRehash(encodedPassword)
+                ? rehash(user, rawPassword)
+                : null;
+
         log.info("{}님 로그인 성공!", user.getUserName());
 
         // 로그인 성공 후에 클라이언트에게 뭘 리턴할 것인가???
         // -> JWT를 클라이언트에게 발급해 주어야 한다!
         String token = tokenProvider.createToken(user);
 
-        return new LoginResponseDTO(user, token);
+        String refreshToken = transactionTemplate.execute(status -> {
+            if(rehashed != null) {
+                // 검증하는 사이에 비밀번호가 바뀌지 않았을 때만 저장 (커밋할 때 반영)
+                userRepository.findById(user.getId())
+                        .filter(found -> found.getPassword().equals(encodedPassword))
+                        .ifPresent(found -> found.changePassword(rehashed));
+            }
+            // 액세스 토큰이 만료될 때마다 다시 로그인(BCrypt 검증)하지 않도록 리프레시 토큰도 발급
+            return refreshTokenService.issue(user.getId());
+        });
+
+        return new LoginResponseDTO(user, token, refreshToken);
+
+    }
+
+    // 새 비용으로 다시 해싱한 비밀번호를 리턴
+    // 다시 해싱하지 못해도 로그인은 성공으로 처리 (null을 리턴하고 다음 로그인 때 다시 시도)
+    private String rehash(User user, String rawPassword) {
+        try {
+            String rehashed = passwordHashingExecutor.encode(rawPassword);
+            passwordHashingExecutor.recordRehash();
+            return rehashed;
+        } catch (PasswordHashingBusyException e) {
+            log.warn("비밀번호 재해싱을 다음 로그인으로 미룹니다. - user: {}", user.getId());
+            return null;
+        }
+    }
+
+    /**
+     * 리프레시 토큰으로 액세스 토큰을 재발급 (비밀번호 검증 없음)
+     * 사용한 리프레시 토큰은 새 토큰으로 교체되어 응답에 담긴다.
+     * @param refreshToken - 로그인(또는 이전 재발급) 응답으로 받은 리프레시 토큰
+     * @return - 새 액세스 토큰과 새 리프레시 토큰
+     * @throws InvalidRefreshTokenException - 없거나, 만료되었거나, 이미 사용된 토큰인 경우
+     */
+    @Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+    public LoginResponseDTO refresh(final String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
 
+        // 등급이 바뀌었을 수 있으므로 회원 정보는 새로 조회 (2차 캐시에 있다면 DB 조회 없음)
+        User user = userRepository.findById(rotation.getUserId())
+                .orElseThrow(
+                        () -> new InvalidRefreshTokenException("가입된 회원이 아닙니다.")
+                );
+
+        String token = tokenProvider.createToken(user);
+        return new LoginResponseDTO(user, token, rotation.getRefreshToken());
     }
 
 
     // 프리미엄으로 등급 업
+    @Transactional
     public LoginResponseDTO promoteToPremium(TokenUserInfo userInfo) {
 
         User foundUser = userRepository.findById(userInfo.getUserId())
@@ -128,8 +196,12 @@ public class UserService {
         foundUser.changeRole(Role.PREMIUM);
         User saved = userRepository.save(foundUser);
 
+        // 이전 등급이 담긴 토큰은 더 이상 사용할 수 없도록 지금까지 발급된 토큰을 모두 폐기
+        Instant revokedUntil = tokenRevocationList.revokeIssuedBefore(saved.getId(), Instant.now());
+
         // 토큰을 재발급! (새롭게 변경된 정보로)
-        String token = tokenProvider.createToken(saved);
+        // 기준 시각과 같은 초에 발급된 토큰은 폐기되므로, 새 토큰은 기준 시각 다음 초로 발급
+        String token = tokenProvider.createToken(saved, revokedUntil.plusSeconds(1));
 
         return new LoginResponseDTO(saved, token);
     }
@@ -164,6 +236,7 @@ public class UserService {
         return uploadUrl;
     }
 
+    @Transactional(readOnly = true)
     public String findProfilePath(String userId) {
         User user = userRepository.findById(userId).orElseThrow();
         return user.getProfileImg(); // 이미지를 등록하지 않았으면 null, 카카오랑/ 그냥 파일 올린 사람은 모두 url로 올 것이기 때문에 하단의 if절 필오 없음.
@@ -203,12 +276,13 @@ public class UserService {
                 .orElseThrow();
 
         String token = tokenProvider.createToken(foundUser);
+        String refreshToken = refreshTokenService.issue(foundUser.getId());
 
         // 이전에 한번 로그인 한 적있는 유저의 access_token의 값을 새로 받은 로그인토큰으로 수정.
         foundUser.setAccessToken((String)responseData.get("access_token") );
         userRepository.save(foundUser);
 
-        return new LoginResponseDTO(foundUser, token);
+        return new LoginResponseDTO(foundUser, token, refreshToken);
     }
 
     private KakaoUserDTO getKakaoUserInfo(String accessToken) {
@@ -281,6 +355,12 @@ public class UserService {
 
     public String logout(TokenUserInfo userInfo) {
 
+        // 로그아웃하면 더 이상 액세스 토큰을 재발급받을 수 없도록 리프레시 토큰을 모두 폐기
+        int revoked = refreshTokenService.revokeAll(userInfo.getUserId());
+        log.info("리프레시 토큰 {}개 폐기 - user: {}", revoked, userInfo.getUserId());
+        // 지금 사용 중인 액세스 토큰도 만료 전이지만 폐기
+        tokenRevocationList.revoke(userInfo);
+
         User foundUser = userRepository.findById(userInfo.getUserId())
                 .orElseThrow();
 
@@ -0,0 +1,35 @@
+package com.example.todo;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeOrderedIdGeneratorTest {
+
+    @Test
+    @DisplayName("생성된 id는 32자리 16진수이고, 나중에 만든 id가 항상 더 커야 한다.")
+    void orderedTest() {
+        //given
+        int count = 100_000;
+        Set<String> ids = new HashSet<>();
+        String prev = "";
+
+        //when
+        for (int i = 0; i < count; i++) {
+            String id = TimeOrderedIdGenerator.nextId();
+
+            //then
+            assertTrue(id.matches("[0-9a-f]{32}"), id);
+            assertEquals('7', id.charAt(12)); // UUID version 7
+            assertTrue(id.compareTo(prev) > 0, prev + " >= " + id);
+            prev = id;
+            ids.add(id);
+        }
+        assertEquals(count, ids.size());
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.example.todo.auth;
+
+import com.example.todo.exception.PasswordHashingBusyException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("해싱 스레드와 대기열이 모두 차면 기다리지 않고 바로 거절해야 한다.")
+    void rejectWhenSaturatedTest() throws Exception {
+        //given - 스레드 1개, 대기열 1개, 해싱이 끝나지 않는 인코더
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor = new PasswordHashingExecutor(
+                new BlockingEncoder(started, release), 10, 1, 1, Duration.ofSeconds(10));
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> executor.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> executor.encode("b"));
+        while (executor.stats().getQueued() < 1) Thread.onSpinWait();
+
+        //when
+        long start = System.nanoTime();
+        PasswordHashingBusyException e = assertThrows(PasswordHashingBusyException.class,
+                () -> executor.encode("c"));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        //then
+        assertTrue(elapsedMillis < 1000);
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+        assertEquals(1, executor.stats().getRejected());
+
+        release.countDown();
+        assertEquals("hashed-a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hashed-b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("차례가 timeout 안에 오지 않으면 거절해야 한다.")
+    void timeoutTest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor = new PasswordHashingExecutor(
+                new BlockingEncoder(started, release), 10, 1, 4, Duration.ofMillis(100));
+
+        CompletableFuture.runAsync(() -> executor.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThrows(PasswordHashingBusyException.class, () -> executor.matches("b", "hashed-b"));
+        assertEquals(1, executor.stats().getTimedOut());
+        release.countDown();
+    }
+
+    @Test
+    @DisplayName("이미 시작한 해싱은 timeout이 지나도 끝날 때까지 기다려서 결과를 받아야 한다.")
+    void startedTaskIsNotAbandonedTest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        executor = new PasswordHashingExecutor(
+                new BlockingEncoder(started, release), 10, 1, 4, Duration.ofMillis(100));
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> executor.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Thread.sleep(300); // timeout이 지난 뒤에 해싱이 끝남
+        release.countDown();
+
+        assertEquals("hashed-a", running.get(5, TimeUnit.SECONDS));
+        assertEquals(0, executor.stats().getTimedOut());
+    }
+
+    @Test
+    @DisplayName("저장된 해시의 비용이 설정과 다를 때만 다시 해싱해야 한다.")
+    void needsRehashTest() {
+        executor = new PasswordHashingExecutor(
+                new BCryptPasswordEncoder(5), 5, 1, 1, Duration.ofSeconds(10));
+
+        String current = executor.encode("1234");
+        String old = new BCryptPasswordEncoder(4).encode("1234");
+
+        assertTrue(executor.matches("1234", current));
+        assertFalse(executor.needsRehash(current));
+        assertTrue(executor.needsRehash(old));
+        assertFalse(executor.needsRehash("plain-text"));
+    }
+
+    // release될 때까지 해싱이 끝나지 않는 인코더
+    private static class BlockingEncoder implements PasswordEncoder {
+
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        BlockingEncoder(CountDownLatch started, CountDownLatch release) {
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed-" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+}
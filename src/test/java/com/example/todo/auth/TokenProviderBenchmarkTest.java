@@ -0,0 +1,108 @@
+package com.example.todo.auth;
+
+import com.example.todo.userapi.entity.Role;
+import com.example.todo.userapi.entity.User;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 토큰 검증 비교: (매번 서명 검사 + 파싱) vs (검증된 토큰 캐시)
+class TokenProviderBenchmarkTest {
+
+    private static final String SECRET = "a".repeat(64); // HS512는 512비트 이상의 키가 필요
+    private static final int WARMUP = 2_000;
+    private static final int ITERATIONS = 20_000;
+
+    TokenProvider tokenProvider;
+    String token;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new TokenProvider(SECRET, Duration.ofMinutes(10), 100, Duration.ofHours(1));
+        token = tokenProvider.createToken(User.builder()
+                .id("user1")
+                .email("bench-token@abc.com")
+                .password("1234")
+                .userName("벤치")
+                .role(Role.PREMIUM)
+                .build());
+    }
+
+    @Test
+    @DisplayName("같은 토큰을 다시 검증하면 캐시된 회원 정보를 리턴해야 한다.")
+    void cachedTest() {
+        TokenUserInfo first = tokenProvider.validateAndGetTokenUserInfo(token);
+        TokenUserInfo second = tokenProvider.validateAndGetTokenUserInfo(token);
+
+        assertEquals("user1", first.getUserId());
+        assertEquals(Role.PREMIUM, first.getRole());
+        assertSame(first, second);
+        assertEquals(1, tokenProvider.verifiedTokenStats().getHits());
+    }
+
+    @Test
+    @DisplayName("서명이 위조된 토큰은 캐시되지 않고 매번 예외가 발생해야 한다.")
+    void forgedTokenTest() {
+        String forged = token.substring(0, token.length() - 2) + "xx";
+
+        assertThrows(JwtException.class, () -> tokenProvider.validateAndGetTokenUserInfo(forged));
+        assertThrows(JwtException.class, () -> tokenProvider.validateAndGetTokenUserInfo(forged));
+        assertEquals(0, tokenProvider.verifiedTokenStats().getSize());
+    }
+
+    @Test
+    @DisplayName("매번 파싱하는 경로와 캐시 경로의 지연시간과 할당량 비교")
+    void compareValidatePaths() {
+        Result parsing = measure(() -> tokenProvider.parse(token));
+        Result cached = measure(() -> tokenProvider.validateAndGetTokenUserInfo(token));
+
+        System.out.println("\n\n\n");
+        System.out.println("parse  = " + parsing);
+        System.out.println("cached = " + cached);
+        System.out.println("\n\n\n");
+
+        assertTrue(cached.nanosPerCall < parsing.nanosPerCall);
+    }
+
+    private Result measure(Runnable path) {
+        for (int i = 0; i < WARMUP; i++) {
+            path.run();
+        }
+
+        com.sun.management.ThreadMXBean threadBean
+                = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long bytesBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            path.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        return new Result(elapsed / ITERATIONS, allocated / ITERATIONS);
+    }
+
+    private static class Result {
+        final long nanosPerCall;
+        final long bytesPerCall;
+
+        Result(long nanosPerCall, long bytesPerCall) {
+            this.nanosPerCall = nanosPerCall;
+            this.bytesPerCall = bytesPerCall;
+        }
+
+        @Override
+        public String toString() {
+            return nanosPerCall + " ns/call, " + bytesPerCall + " bytes allocated/call";
+        }
+    }
+
+}
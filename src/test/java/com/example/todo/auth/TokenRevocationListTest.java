@@ -0,0 +1,77 @@
+package com.example.todo.auth;
+
+import com.example.todo.userapi.entity.Role;
+import com.example.todo.userapi.entity.TokenWatermark;
+import com.example.todo.userapi.repository.RevokedTokenRepository;
+import com.example.todo.userapi.repository.TokenWatermarkRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TokenRevocationListTest {
+
+    @Test
+    @DisplayName("필터를 다시 만드는 도중에 폐기한 토큰도 새 필터에 남아 있어야 한다.")
+    void revokeDuringReloadTest() {
+        RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+        TokenWatermarkRepository tokenWatermarkRepository = mock(TokenWatermarkRepository.class);
+        TokenRevocationList revocationList = new TokenRevocationList(
+                revokedTokenRepository, tokenWatermarkRepository, Duration.ofMinutes(15), 0.01, 100);
+
+        Instant now = Instant.now();
+        TokenUserInfo userInfo = new TokenUserInfo("user1", "user1@test.com", Role.COMMON,
+                "jti-1", now, now.plus(Duration.ofMinutes(15)));
+
+        when(tokenWatermarkRepository.findActiveUserIds(any())).thenReturn(List.of());
+        when(revokedTokenRepository.findActiveTokenIds(any())).thenReturn(List.of());
+        revocationList.reload();
+
+        // DB를 읽은 직후(새 필터로 바꾸기 전)에 이 서버에서 폐기
+        when(revokedTokenRepository.findActiveTokenIds(any())).thenAnswer(invocation -> {
+            revocationList.revoke(userInfo);
+            return List.of();
+        });
+        revocationList.reload();
+
+        when(revokedTokenRepository.existsById("jti-1")).thenReturn(true);
+        assertTrue(revocationList.isRevoked(userInfo));
+    }
+
+    @Test
+    @DisplayName("모두 폐기한 순간과 같은 초에 발급된 토큰도 폐기되고, 기준 시각 다음 초에 발급한 토큰은 통과해야 한다.")
+    void sameSecondWatermarkTest() {
+        RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+        TokenWatermarkRepository tokenWatermarkRepository = mock(TokenWatermarkRepository.class);
+        TokenRevocationList revocationList = new TokenRevocationList(
+                revokedTokenRepository, tokenWatermarkRepository, Duration.ofMinutes(15), 0.01, 100);
+
+        // 토큰을 발급하고 같은 초 안에 모두 폐기
+        Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Instant watermarkAt = revocationList.revokeIssuedBefore("user1", issuedAt.plusMillis(900));
+
+        ArgumentCaptor<TokenWatermark> saved = ArgumentCaptor.forClass(TokenWatermark.class);
+        verify(tokenWatermarkRepository).save(saved.capture());
+        when(tokenWatermarkRepository.findById("user1")).thenReturn(Optional.of(saved.getValue()));
+
+        assertTrue(revocationList.isRevoked(token("jti-1", issuedAt)));
+        assertFalse(revocationList.isRevoked(token("jti-2", watermarkAt.plusSeconds(1))));
+    }
+
+    private static TokenUserInfo token(String tokenId, Instant issuedAt) {
+        return new TokenUserInfo("user1", "user1@test.com", Role.COMMON,
+                tokenId, issuedAt, issuedAt.plus(Duration.ofMinutes(15)));
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.example.todo.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomFilterTest {
+
+    private static final int KEYS = 10_000;
+    private static final double RATE = 0.01;
+
+    @Test
+    @DisplayName("넣은 키는 항상 있다고 답하고, 넣지 않은 키의 오탐률은 목표 근처여야 한다.")
+    void falsePositiveRateTest() {
+        //given
+        BloomFilter filter = new BloomFilter(KEYS, RATE);
+        String[] inserted = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            inserted[i] = randomId();
+            filter.put(inserted[i]);
+        }
+
+        //when
+        for (String key : inserted) {
+            assertTrue(filter.mightContain(key));
+        }
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(randomId())) falsePositives++;
+        }
+
+        //then
+        double rate = (double) falsePositives / probes;
+        System.out.printf("\n\n키 %d개, 비트 %d개, 해시 %d번 - 오탐률: %.4f\n\n",
+                KEYS, filter.bitCount(), filter.hashCount(), rate);
+        assertTrue(rate < RATE * 2);
+    }
+
+    @Test
+    @DisplayName("없는 키 확인은 DB 조회 없이 수백 ns 안에 끝나야 한다.")
+    void lookupCostTest() {
+        BloomFilter filter = new BloomFilter(KEYS, RATE);
+        for (int i = 0; i < KEYS; i++) {
+            filter.put(randomId());
+        }
+        String[] probes = new String[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            probes[i] = randomId();
+        }
+
+        // 워밍업
+        for (int round = 0; round < 20; round++) {
+            for (String probe : probes) filter.mightContain(probe);
+        }
+
+        int rounds = 50;
+        int hits = 0;
+        long start = System.nanoTime();
+        for (int round = 0; round < rounds; round++) {
+            for (String probe : probes) {
+                if (filter.mightContain(probe)) hits++;
+            }
+        }
+        double nanosPerLookup = (double) (System.nanoTime() - start) / (rounds * KEYS);
+
+        System.out.printf("\n\n조회 1번 평균: %.1f ns (오탐 %d번)\n\n", nanosPerLookup, hits);
+        assertTrue(nanosPerLookup < 1_000);
+    }
+
+    private static String randomId() {
+        return UUID.randomUUID().toString().replace("-", "");
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.example.todo.datasource;
+
+import com.example.todo.auth.TokenUserInfo;
+import com.example.todo.todoapi.dto.response.TodoChangeType;
+import com.example.todo.todoapi.event.TodoChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 내장 DB(H2) 두 개를 primary, replica로 사용해서 라우팅을 확인
+// 각 DB에는 자기 이름이 들어있는 테이블이 하나씩 있다.
+class ReplicaRoutingDataSourceTest {
+
+    private ReplicaLagGuard replicaLagGuard;
+    private DataSourceTransactionManager transactionManager;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        replicaLagGuard = new ReplicaLagGuard(Duration.ofSeconds(5), 100);
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new ReplicaRoutingDataSource(h2("primary"), h2("replica"), replicaLagGuard));
+        transactionManager = new DataSourceTransactionManager(routing);
+        jdbcTemplate = new JdbcTemplate(routing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("읽기 전용 트랜잭션은 replica, 나머지는 primary에서 실행되어야 한다.")
+    void routingTest() {
+        assertEquals("replica", whereAmI(true));
+        assertEquals("primary", whereAmI(false));
+    }
+
+    @Test
+    @DisplayName("쓰기를 한 회원의 읽기는 일정 시간 동안 primary에서 실행되어야 한다.")
+    void lagFallbackTest() {
+        login("user1");
+        whereAmI(false); // user1의 쓰기 트랜잭션
+        assertEquals("primary", whereAmI(true));
+
+        login("user2");
+        assertEquals("replica", whereAmI(true));
+    }
+
+    @Test
+    @DisplayName("할 일 변경 이벤트가 발생한 회원의 읽기도 primary에서 실행되어야 한다.")
+    void todoChangedEventTest() {
+        replicaLagGuard.onTodoChanged(
+                new TodoChangedEvent("user3", 2, 1, TodoChangeType.REFRESHED, List.of()));
+
+        login("user3");
+        assertEquals("primary", whereAmI(true));
+    }
+
+    private String whereAmI(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status ->
+                jdbcTemplate.queryForObject("SELECT name FROM db_role", String.class));
+    }
+
+    private void login(String userId) {
+        TokenUserInfo userInfo = TokenUserInfo.builder().userId(userId).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(userInfo, null, List.of()));
+    }
+
+    private static DataSource h2(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("DROP TABLE IF EXISTS db_role");
+        template.execute("CREATE TABLE db_role (name VARCHAR(10))");
+        template.update("INSERT INTO db_role (name) VALUES (?)", name);
+        return dataSource;
+    }
+
+}
@@ -0,0 +1,183 @@
+package com.example.todo.datasource;
+
+import com.example.todo.todoapi.service.TodoResharder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 내장 DB(H2) 세 개를 샤드로 사용해서 라우팅과 회원 이동을 확인
+// 각 DB에는 자기 이름이 들어있는 테이블과 할 일 테이블들이 있다.
+class ShardRoutingDataSourceTest {
+
+    private static final int SHARDS = 3;
+
+    private JdbcTemplate jdbcTemplate;
+    private ShardDirectory shardDirectory;
+    private TodoResharder todoResharder;
+
+    @BeforeEach
+    void setUp() {
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            shards.add(h2("shard" + i));
+        }
+        DataSource routing = new LazyConnectionDataSourceProxy(new ShardRoutingDataSource(shards));
+        jdbcTemplate = new JdbcTemplate(routing);
+        shardDirectory = new ShardDirectory(SHARDS, jdbcTemplate);
+        todoResharder = new TodoResharder(
+                jdbcTemplate, new DataSourceTransactionManager(routing), shardDirectory, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ShardContext.clear();
+    }
+
+    @Test
+    @DisplayName("지정한 샤드에서 실행되고, 지정하지 않으면 0번 샤드에서 실행되어야 한다.")
+    void routingTest() {
+        for (int i = 0; i < SHARDS; i++) {
+            assertEquals("shard" + i, ShardContext.callOn(i, this::whereAmI));
+        }
+        assertEquals("shard0", whereAmI());
+    }
+
+    @Test
+    @DisplayName("배정표에 없는 회원은 해시로 정한 샤드를 사용해야 한다.")
+    void hashShardTest() {
+        shardDirectory.initialize();
+
+        int[] counts = new int[SHARDS];
+        for (int i = 0; i < 300; i++) {
+            String userId = "user" + i;
+            int shard = shardDirectory.shardOf(userId);
+            assertEquals(shard, shardDirectory.shardOf(userId));
+            counts[shard]++;
+        }
+        for (int count : counts) {
+            assertTrue(count > 0);
+        }
+    }
+
+    @Test
+    @DisplayName("처음 샤딩을 켤 때 기존 회원은 0번 샤드에 고정되어야 한다.")
+    void pinExistingUsersTest() {
+        //given - 해시로는 0번이 아닌 샤드가 정해지는 기존 회원
+        String userId = userHashedTo(1);
+        insertTodo(ShardDirectory.HOME_SHARD, userId, "todo-1", null);
+
+        //when
+        shardDirectory.initialize();
+
+        //then
+        assertEquals(ShardDirectory.HOME_SHARD, shardDirectory.shardOf(userId));
+        assertEquals(1, shardDirectory.assignedCount());
+    }
+
+    @Test
+    @DisplayName("회원을 옮기면 할 일, 보관된 할 일이 새 샤드로 복사되고 기존 샤드에서는 지워져야 한다.")
+    void moveTest() {
+        //given
+        shardDirectory.initialize();
+        String userId = userHashedTo(1);
+        insertTodo(1, userId, "todo-1", null);
+        insertTodo(1, userId, "todo-2", null);
+        insertTodo(1, userId, "todo-3", LocalDateTime.now()); // 삭제 표시된 할 일
+        ShardContext.runOn(1, () -> {
+            jdbcTemplate.update("INSERT INTO tbl_todo_archive (todo_id, title, done, create_date, archived_at, user_id)" +
+                    " VALUES ('old-1', '보관', TRUE, ?, ?, ?)", now(), now(), userId);
+            jdbcTemplate.update("INSERT INTO tbl_todo_counter (user_id, todo_count) VALUES (?, 2)", userId);
+        });
+
+        //when
+        int copied = todoResharder.move(userId, 2);
+
+        //then
+        assertEquals(4, copied);
+        assertEquals(2, shardDirectory.shardOf(userId));
+        assertEquals(3, count(2, "tbl_todo", userId));
+        assertEquals(1, count(2, "tbl_todo_archive", userId));
+        assertEquals(0, count(1, "tbl_todo", userId));
+        assertEquals(0, count(1, "tbl_todo_archive", userId));
+        assertEquals(0, count(1, "tbl_todo_counter", userId));
+        assertEquals(1, count(2, "tbl_todo_counter", userId)); // 목록 버전을 이어가기 위해 새 샤드에 카운터 행을 만듦
+
+        // 다른 서버가 배정표를 다시 읽어도 같은 샤드
+        shardDirectory.reload();
+        assertEquals(2, shardDirectory.shardOf(userId));
+    }
+
+    @Test
+    @DisplayName("해시로 정해지는 샤드로 되돌리면 배정표에서 지워져야 한다.")
+    void moveBackTest() {
+        shardDirectory.initialize();
+        String userId = userHashedTo(1);
+        insertTodo(1, userId, "todo-1", null);
+
+        todoResharder.move(userId, 0);
+        assertEquals(1, shardDirectory.assignedCount());
+
+        todoResharder.move(userId, 1);
+        assertEquals(0, shardDirectory.assignedCount());
+        assertEquals(1, count(1, "tbl_todo", userId));
+        assertEquals(0, count(0, "tbl_todo", userId));
+    }
+
+    private String whereAmI() {
+        return jdbcTemplate.queryForObject("SELECT name FROM db_role", String.class);
+    }
+
+    private String userHashedTo(int shard) {
+        for (int i = 0; ; i++) {
+            String userId = "user" + i;
+            if (shardDirectory.hashShard(userId) == shard) return userId;
+        }
+    }
+
+    private void insertTodo(int shard, String userId, String todoId, LocalDateTime deletedAt) {
+        ShardContext.runOn(shard, () -> jdbcTemplate.update(
+                "INSERT INTO tbl_todo (todo_id, title, done, create_date, version, deleted_at, user_id)" +
+                        " VALUES (?, ?, FALSE, ?, 0, ?, ?)",
+                todoId, "할 일 " + todoId, now(), deletedAt == null ? null : Timestamp.valueOf(deletedAt), userId));
+    }
+
+    private int count(int shard, String table, String userId) {
+        return ShardContext.callOn(shard, () -> jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + table + " WHERE user_id = ?", Integer.class, userId));
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+
+    private static DataSource h2(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("DROP TABLE IF EXISTS db_role, tbl_todo, tbl_todo_archive, tbl_todo_counter, tbl_shard_directory");
+        template.execute("CREATE TABLE db_role (name VARCHAR(10))");
+        template.update("INSERT INTO db_role (name) VALUES (?)", name);
+        template.execute("CREATE TABLE tbl_todo (todo_id VARCHAR(32) PRIMARY KEY, title VARCHAR(30) NOT NULL," +
+                " done BOOLEAN, create_date TIMESTAMP, version BIGINT NOT NULL DEFAULT 0," +
+                " deleted_at TIMESTAMP, completed_at TIMESTAMP, user_id VARCHAR(32))");
+        template.execute("CREATE TABLE tbl_todo_archive (todo_id VARCHAR(32) PRIMARY KEY, title VARCHAR(30) NOT NULL," +
+                " done BOOLEAN, create_date TIMESTAMP, archived_at TIMESTAMP, user_id VARCHAR(32) NOT NULL)");
+        template.execute("CREATE TABLE tbl_todo_counter (user_id VARCHAR(32) PRIMARY KEY, todo_count INT NOT NULL," +
+                " list_version BIGINT NOT NULL DEFAULT 0)");
+        return dataSource;
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.example.todo.filter;
+
+import com.example.todo.auth.TokenProvider;
+import com.example.todo.auth.TokenRevocationList;
+import com.example.todo.auth.TokenUserInfo;
+import com.example.todo.config.PublicRoutes;
+import com.example.todo.userapi.entity.Role;
+import com.example.todo.userapi.entity.User;
+import com.example.todo.userapi.repository.RevokedTokenRepository;
+import com.example.todo.userapi.repository.TokenWatermarkRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletRequest;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+// 헬스 체크(/) 요청이 토큰 필터를 지나는 비용 비교: (모든 요청에서 토큰 검사) vs (공개 경로는 건너뜀)
+// 브라우저가 저장해 둔 토큰을 공개 요청에도 붙여 보내는 경우를 가정한다.
+class JwtAuthFilterBenchmarkTest {
+
+    private static final String SECRET = "a".repeat(64);
+    private static final int WARMUP = 5_000;
+    private static final int ITERATIONS = 50_000;
+
+    JwtAuthFilter filter;
+    JwtAuthFilter filterEverything; // 공개 경로 판별 전의 동작 (모든 요청에서 토큰 검사)
+    String token;
+
+    // 인증 정보를 확인하고 다음 요청을 위해 비움
+    Authentication lastAuthentication;
+    final FilterChain chain = (req, res) -> {
+        lastAuthentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+    };
+
+    @BeforeEach
+    void setUp() {
+        TokenProvider tokenProvider = new TokenProvider(SECRET, Duration.ofMinutes(10), 100, Duration.ofHours(1));
+        TokenRevocationList revocationList = new TokenRevocationList(
+                mock(RevokedTokenRepository.class), mock(TokenWatermarkRepository.class),
+                Duration.ofMinutes(10), 0.01, 100);
+        revocationList.reload(); // 폐기된 토큰이 없는 빈 필터
+
+        filter = new JwtAuthFilter(tokenProvider, revocationList, new PublicRoutes());
+        filterEverything = new JwtAuthFilter(tokenProvider, revocationList, new PublicRoutes()) {
+            @Override
+            protected boolean shouldNotFilter(HttpServletRequest request) {
+                return false;
+            }
+        };
+        token = tokenProvider.createToken(User.builder()
+                .id("user1")
+                .email("bench-filter@abc.com")
+                .password("1234")
+                .userName("벤치")
+                .role(Role.COMMON)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    @DisplayName("공개 경로는 토큰이 있어도 인증 처리를 하지 않고, 나머지 경로는 인증 처리를 해야 한다.")
+    void publicRouteTest() throws Exception {
+        filter.doFilter(request("GET", "/"), new MockHttpServletResponse(), chain);
+        assertNull(lastAuthentication);
+
+        filter.doFilter(request("POST", "/api/auth/signin"), new MockHttpServletResponse(), chain);
+        assertNull(lastAuthentication);
+
+        // 같은 경로라도 메서드가 다르면 공개 경로가 아님
+        filter.doFilter(request("GET", "/api/auth/signin"), new MockHttpServletResponse(), chain);
+        assertNotNull(lastAuthentication);
+
+        // 토큰의 회원 정보를 사용하는 /api/auth 요청
+        filter.doFilter(request("GET", "/api/auth/logout"), new MockHttpServletResponse(), chain);
+        assertEquals("user1", ((TokenUserInfo) lastAuthentication.getPrincipal()).getUserId());
+
+        filter.doFilter(request("GET", "/api/todos"), new MockHttpServletResponse(), chain);
+        assertNotNull(lastAuthentication);
+    }
+
+    @Test
+    @DisplayName("헬스 체크 요청의 필터 통과 지연시간과 할당량 비교")
+    void compareHealthCheckPaths() throws Exception {
+        MockHttpServletRequest healthCheck = request("GET", "/");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        Result everything = measure(() -> filterEverything.doFilter(healthCheck, response, chain));
+        Result skipped = measure(() -> filter.doFilter(healthCheck, response, chain));
+
+        System.out.println("\n\n\n");
+        System.out.println("filter every request = " + everything);
+        System.out.println("skip public routes   = " + skipped);
+        System.out.println("\n\n\n");
+
+        assertTrue(skipped.nanosPerCall < everything.nanosPerCall);
+    }
+
+    private MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.addHeader("Authorization", "Bearer " + token);
+        return request;
+    }
+
+    private Result measure(FilterCall path) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            path.run();
+        }
+
+        com.sun.management.ThreadMXBean threadBean
+                = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long bytesBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            path.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        return new Result(elapsed / ITERATIONS, allocated / ITERATIONS);
+    }
+
+    @FunctionalInterface
+    private interface FilterCall {
+        void run() throws Exception;
+    }
+
+    private static class Result {
+        final long nanosPerCall;
+        final long bytesPerCall;
+
+        Result(long nanosPerCall, long bytesPerCall) {
+            this.nanosPerCall = nanosPerCall;
+            this.bytesPerCall = bytesPerCall;
+        }
+
+        @Override
+        public String toString() {
+            return nanosPerCall + " ns/call, " + bytesPerCall + " bytes allocated/call";
+        }
+    }
+
+}
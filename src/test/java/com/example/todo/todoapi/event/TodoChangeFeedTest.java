@@ -0,0 +1,73 @@
+package com.example.todo.todoapi.event;
+
+import com.example.todo.datasource.ShardDirectory;
+import com.example.todo.todoapi.service.TodoVersionTracker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TodoChangeFeedTest {
+
+    @Test
+    @DisplayName("전송이 막힌 구독자가 있어도 다른 구독자의 전송은 send-timeout 안에 이어져야 한다.")
+    void stalledSubscriberTest() throws InterruptedException {
+        CountDownLatch stalled = new CountDownLatch(1);
+        CountDownLatch received = new CountDownLatch(1);
+
+        // 첫 번째 연결은 받아가지 않는 클라이언트, 두 번째 연결은 정상 클라이언트
+        Deque<SseEmitter> emitters = new ArrayDeque<>();
+        emitters.add(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                stalled.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    throw new IOException("전송 중단", e);
+                }
+            }
+        });
+        emitters.add(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                received.countDown();
+            }
+        });
+
+        // 전송 스레드 하나로 두 연결을 처리
+        TodoChangeFeed feed = new TodoChangeFeed(mock(TodoVersionTracker.class), ShardDirectory.single(),
+                Duration.ofMinutes(1), 16, 10, 10, 5, 1, Duration.ofMillis(50)) {
+            @Override
+            SseEmitter createEmitter() {
+                return emitters.poll();
+            }
+        };
+
+        try {
+            feed.subscribe("slow", null);
+            assertTrue(stalled.await(1, TimeUnit.SECONDS));
+            feed.subscribe("fast", null);
+
+            // 막힌 전송이 스레드를 잡고 있는 동안에는 다른 연결로 보내지 못함
+            assertFalse(received.await(100, TimeUnit.MILLISECONDS));
+
+            feed.closeStalledSends();
+
+            assertTrue(received.await(1, TimeUnit.SECONDS));
+            assertEquals(1, feed.connectionCount());
+        } finally {
+            feed.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.example.todo.todoapi.repository;
+
+import com.example.todo.todoapi.dto.response.TodoDetailResponseDTO;
+import com.example.todo.todoapi.entity.Todo;
+import com.example.todo.userapi.entity.User;
+import com.example.todo.userapi.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 목록 조회 경로 비교: (회원 조회 + 엔터티 조회 후 DTO 변환) vs (DTO 프로젝션 조회)
+@SpringBootTest
+@Transactional
+class TodoReadPathBenchmarkTest {
+
+    private static final int TODO_COUNT = 500;
+    private static final int WARMUP = 50;
+    private static final int ITERATIONS = 200;
+
+    @Autowired
+    TodoRepository todoRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    EntityManager em;
+
+    String userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = userRepository.save(User.builder()
+                .email("bench-read@abc.com")
+                .password("1234")
+                .userName("벤치")
+                .build());
+        for (int i = 0; i < TODO_COUNT; i++) {
+            todoRepository.save(Todo.builder()
+                    .title("할 일 " + i)
+                    .user(user)
+                    .build());
+        }
+        em.flush();
+        em.clear();
+        userId = user.getId();
+    }
+
+    @Test
+    @DisplayName("프로젝션 조회는 엔터티 조회와 같은 결과를 리턴해야 한다.")
+    void sameResultTest() {
+        List<TodoDetailResponseDTO> projected = todoRepository.findDetailsByUserId(userId);
+        assertEquals(TODO_COUNT, projected.size());
+        assertEquals(TODO_COUNT, entityPath().size());
+    }
+
+    @Test
+    @DisplayName("엔터티 경로와 프로젝션 경로의 지연시간과 할당량 비교")
+    void compareReadPaths() {
+        Result entity = measure(this::entityPath);
+        Result projection = measure(() -> todoRepository.findDetailsByUserId(userId));
+
+        System.out.println("\n\n\n");
+        System.out.println("entity     = " + entity);
+        System.out.println("projection = " + projection);
+        System.out.println("\n\n\n");
+    }
+
+    // 기존 경로: 회원 엔터티 조회 -> 할 일 엔터티 조회 -> DTO 변환
+    private List<TodoDetailResponseDTO> entityPath() {
+        User user = userRepository.findById(userId).orElseThrow();
+        return todoRepository.findAllByUser(user).stream()
+                .map(TodoDetailResponseDTO::new)
+                .collect(Collectors.toList());
+    }
+
+    private Result measure(Supplier<List<TodoDetailResponseDTO>> path) {
+        for (int i = 0; i < WARMUP; i++) {
+            path.get();
+            em.clear();
+        }
+
+        com.sun.management.ThreadMXBean threadBean
+                = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long bytesBefore = threadBean.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            path.get();
+            em.clear(); // 매 요청마다 새 영속성 컨텍스트를 쓰는 것과 같게 맞춤
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        return new Result(elapsed / ITERATIONS / 1000, allocated / ITERATIONS / 1024);
+    }
+
+    private static class Result {
+        final long microsPerCall;
+        final long kbPerCall;
+
+        Result(long microsPerCall, long kbPerCall) {
+            this.microsPerCall = microsPerCall;
+            this.kbPerCall = kbPerCall;
+        }
+
+        @Override
+        public String toString() {
+            return microsPerCall + " us/call, " + kbPerCall + " KB allocated/call";
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.example.todo.todoapi.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoCursorTest {
+
+    @Test
+    @DisplayName("인코딩한 커서를 디코딩하면 같은 위치가 나와야 한다.")
+    void encodeDecodeTest() {
+        //given
+        LocalDateTime createDate = LocalDateTime.of(2023, 11, 27, 10, 30, 15, 123456000);
+        TodoCursor cursor = new TodoCursor(createDate, "402880e48c0f9a1b018c0f9a2b3c0001");
+
+        //when
+        TodoCursor decoded = TodoCursor.decode(cursor.encode());
+
+        //then
+        assertEquals(createDate, decoded.getCreateDate());
+        assertEquals("402880e48c0f9a1b018c0f9a2b3c0001", decoded.getTodoId());
+    }
+
+    @Test
+    @DisplayName("형식이 잘못된 커서를 디코딩하면 IllegalArgumentException이 발생해야 한다.")
+    void invalidCursorTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> TodoCursor.decode("not-a-cursor!!")
+        );
+        assertThrows(IllegalArgumentException.class,
+                () -> TodoCursor.decode("bm8tZGVsaW1pdGVy") // "no-delimiter"
+        );
+    }
+
+}
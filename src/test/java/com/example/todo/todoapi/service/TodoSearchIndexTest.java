@@ -0,0 +1,128 @@
+package com.example.todo.todoapi.service;
+
+import com.example.todo.todoapi.dto.response.TodoChangeType;
+import com.example.todo.todoapi.dto.response.TodoDetailResponseDTO;
+import com.example.todo.todoapi.event.TodoChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoSearchIndexTest {
+
+    private static final String USER_ID = "user1";
+
+    private AtomicLong listVersion;
+    private TodoVersionTracker tracker;
+    private TodoSearchIndex index;
+    private AtomicInteger loadCount;
+    private List<TodoDetailResponseDTO> stored;
+
+    @BeforeEach
+    void setUp() {
+        listVersion = new AtomicLong();
+        tracker = new TodoVersionTracker(event -> index.onTodoChanged((TodoChangedEvent) event),
+                TodoVersionTrackerTest.counterRepository(listVersion));
+        index = new TodoSearchIndex(tracker, 100, Duration.ofMinutes(5));
+        loadCount = new AtomicInteger();
+        stored = List.of(
+                todo("1", "마트에서 우유 사기", 1),
+                todo("2", "Meeting with team", 2),
+                todo("3", "김치볶음밥 만들기", 3),
+                todo("4", "우유 배달 meeting", 4)
+        );
+    }
+
+    @Test
+    @DisplayName("한글은 단어 중간의 일부만 입력해도 검색되어야 한다.")
+    void hangulSubstringTest() {
+        assertEquals(List.of("3"), ids(search("볶음")));
+        assertEquals(List.of("3"), ids(search("밥")));
+        assertEquals(List.of(), ids(search("밥볶")));
+    }
+
+    @Test
+    @DisplayName("영문은 대소문자 구분 없이 접두어로 검색되어야 한다.")
+    void prefixTest() {
+        assertEquals(List.of("2", "4"), ids(search("MEET")));
+        assertEquals(List.of(), ids(search("eeting")));
+    }
+
+    @Test
+    @DisplayName("여러 단어로 검색하면 모든 단어를 포함하는 할 일만 나와야 한다.")
+    void multiTermTest() {
+        assertEquals(List.of("1", "4"), ids(search("우유")));
+        assertEquals(List.of("4"), ids(search("우유 meet")));
+    }
+
+    @Test
+    @DisplayName("색인을 만든 뒤의 변경은 DB 조회 없이 이벤트로 반영되어야 한다.")
+    void incrementalUpdateTest() {
+        search("우유");
+        assertEquals(1, loadCount.get());
+
+        commit(() -> tracker.markChanged(USER_ID, TodoChangeType.CREATED, todo("5", "우유 버리기", 5)));
+        commit(() -> tracker.markChanged(USER_ID, TodoChangeType.DELETED,
+                TodoDetailResponseDTO.builder().id("1").build()));
+
+        assertEquals(List.of("4", "5"), ids(search("우유")));
+        assertEquals(1, loadCount.get());
+
+        // 여러 건이 한꺼번에 바뀌면 색인을 다시 만든다
+        commit(() -> tracker.markChanged(USER_ID, TodoChangeType.REFRESHED, List.of()));
+        search("우유");
+        assertEquals(2, loadCount.get());
+    }
+
+    @Test
+    @DisplayName("다른 서버에서 목록이 바뀌었다면(이벤트 없이 저장된 버전만 바뀜) 색인을 다시 만들어야 한다.")
+    void remoteChangeTest() {
+        search("우유");
+        search("우유");
+        assertEquals(1, loadCount.get());
+
+        listVersion.incrementAndGet();
+        search("우유");
+        assertEquals(2, loadCount.get());
+    }
+
+    // 트랜잭션 안에서 실행하고 커밋한 것처럼 afterCommit을 호출
+    private static void commit(Runnable change) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            change.run();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private List<TodoDetailResponseDTO> search(String query) {
+        return index.search(USER_ID, query, 20, id -> {
+            loadCount.incrementAndGet();
+            return stored;
+        });
+    }
+
+    private static List<String> ids(List<TodoDetailResponseDTO> todos) {
+        return todos.stream().map(TodoDetailResponseDTO::getId).collect(Collectors.toList());
+    }
+
+    private static TodoDetailResponseDTO todo(String id, String title, int minute) {
+        return new TodoDetailResponseDTO(id, title, false,
+                LocalDateTime.of(2023, 11, 27, 10, minute), 0L);
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.example.todo.todoapi.service;
+
+import com.example.todo.datasource.ShardDirectory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class TodoToggleBufferTest {
+
+    @Test
+    @DisplayName("배치가 DB에 쓰는 동안에도 discard는 기다리지 않고, 뺀 할 일은 배치에 포함되지 않아야 한다.")
+    @SuppressWarnings("unchecked")
+    void discardDuringFlushTest() throws InterruptedException {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        TodoToggleBuffer buffer = new TodoToggleBuffer(jdbcTemplate, transactionTemplate,
+                mock(TodoVersionTracker.class), ShardDirectory.single(), true, 100, 5);
+
+        // 트랜잭션이 커넥션을 얻지 못해서 기다리는 상황
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch connected = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            entered.countDown();
+            connected.await();
+            invocation.getArgument(0, Consumer.class).accept(mock(TransactionStatus.class));
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        buffer.offer("user1", "todo-1", true);
+        buffer.offer("user1", "todo-2", true);
+
+        Thread flusher = new Thread(buffer::flush);
+        flusher.start();
+        assertTrue(entered.await(1, TimeUnit.SECONDS));
+
+        // 커넥션을 가진 요청 트랜잭션이 바로 수정하는 상황: 배치를 기다리지 않아야 함
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> buffer.discard("user1", "todo-1"));
+
+        connected.countDown();
+        flusher.join(1000);
+        assertFalse(flusher.isAlive());
+
+        ArgumentCaptor<List<Object[]>> args = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), args.capture());
+        List<Object> updatedIds = args.getValue().stream().map(row -> row[3]).collect(Collectors.toList());
+        assertEquals(List.of("todo-2"), updatedIds);
+        assertFalse(buffer.hasPending("user1"));
+    }
+
+}
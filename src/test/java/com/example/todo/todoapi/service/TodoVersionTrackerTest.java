@@ -0,0 +1,72 @@
+package com.example.todo.todoapi.service;
+
+import com.example.todo.todoapi.dto.response.TodoChangeType;
+import com.example.todo.todoapi.event.TodoChangedEvent;
+import com.example.todo.todoapi.repository.TodoCounterRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TodoVersionTrackerTest {
+
+    @Test
+    @DisplayName("목록 버전은 저장된 버전보다 커져야 하고, 이벤트는 커밋된 뒤에 저장된 버전으로 발행되어야 한다.")
+    void markChangedTest() {
+        AtomicLong stored = new AtomicLong(5);
+        List<TodoChangedEvent> events = new ArrayList<>();
+        TodoVersionTracker tracker = new TodoVersionTracker(
+                event -> events.add((TodoChangedEvent) event), counterRepository(stored));
+
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            tracker.markChanged("user1", TodoChangeType.REFRESHED, List.of());
+            assertTrue(events.isEmpty());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertTrue(stored.get() > 5);
+        assertEquals(1, events.size());
+        assertEquals(stored.get(), events.get(0).getVersion());
+        assertEquals(5, events.get(0).getPreviousVersion());
+        assertEquals(stored.get(), tracker.listVersion("user1"));
+    }
+
+    @Test
+    @DisplayName("트랜잭션 밖에서는 목록 변경을 기록할 수 없다.")
+    void markChangedOutsideTransactionTest() {
+        TodoVersionTracker tracker = new TodoVersionTracker(event -> {}, counterRepository(new AtomicLong()));
+
+        assertThrows(IllegalStateException.class,
+                () -> tracker.markChanged("user1", TodoChangeType.REFRESHED, List.of()));
+    }
+
+    // 한 회원의 카운터 행만 있는 저장소
+    static TodoCounterRepository counterRepository(AtomicLong stored) {
+        TodoCounterRepository repository = mock(TodoCounterRepository.class);
+        when(repository.findListVersionForUpdate(anyString())).thenAnswer(invocation -> Optional.of(stored.get()));
+        when(repository.findListVersion(anyString())).thenAnswer(invocation -> Optional.of(stored.get()));
+        when(repository.updateListVersion(anyString(), anyLong())).thenAnswer(invocation -> {
+            stored.set(invocation.getArgument(1));
+            return 1;
+        });
+        return repository;
+    }
+
+}
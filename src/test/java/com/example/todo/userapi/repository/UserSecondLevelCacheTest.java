@@ -0,0 +1,83 @@
+package com.example.todo.userapi.repository;
+
+import com.example.todo.userapi.entity.Role;
+import com.example.todo.userapi.entity.User;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// 회원 2차 캐시 확인
+// 요청마다 새 영속성 컨텍스트에서 회원을 조회하는 상황을 만들기 위해 테스트 전체를 트랜잭션으로 묶지 않는다.
+@SpringBootTest
+class UserSecondLevelCacheTest {
+
+    private static final int REQUESTS = 20;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+    String userId;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userId = userRepository.save(User.builder()
+                .email("cache-test@abc.com")
+                .password("1234")
+                .userName("캐시")
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(userId);
+    }
+
+    @Test
+    @DisplayName("회원을 id로 여러 번 조회해도 SELECT는 최대 한 번만 실행되어야 한다.")
+    void findByIdHitsCacheTest() {
+        //given
+        userRepository.findById(userId); // 캐시에 올리기
+        statistics.clear();
+
+        //when
+        for (int i = 0; i < REQUESTS; i++) {
+            assertTrue(userRepository.findById(userId).isPresent());
+        }
+
+        //then
+        System.out.printf("\n\n조회 %d번 - 실행된 쿼리: %d, 캐시 적중: %d\n\n",
+                REQUESTS, statistics.getPrepareStatementCount(), statistics.getSecondLevelCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(REQUESTS, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    @DisplayName("등급을 변경하면 캐시에서 조회한 회원에도 바로 반영되어야 한다.")
+    void changeRoleUpdatesCacheTest() {
+        //given
+        User user = userRepository.findById(userId).orElseThrow();
+
+        //when
+        user.changeRole(Role.PREMIUM);
+        userRepository.save(user);
+
+        //then
+        User found = userRepository.findById(userId).orElseThrow();
+        assertEquals(Role.PREMIUM, found.getRole());
+    }
+
+}
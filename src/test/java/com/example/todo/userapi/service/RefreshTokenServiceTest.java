@@ -0,0 +1,57 @@
+package com.example.todo.userapi.service;
+
+import com.example.todo.exception.InvalidRefreshTokenException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class RefreshTokenServiceTest {
+
+    @Autowired
+    RefreshTokenService refreshTokenService;
+
+    @Test
+    @DisplayName("리프레시 토큰을 사용하면 같은 회원의 새 토큰으로 교체되어야 한다.")
+    void rotateTest() {
+        //given
+        String issued = refreshTokenService.issue("refresh-user");
+
+        //when
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(issued);
+
+        //then
+        assertEquals("refresh-user", rotation.getUserId());
+        assertNotEquals(issued, rotation.getRefreshToken());
+    }
+
+    @Test
+    @DisplayName("이미 사용한 토큰을 다시 사용하면 예외가 발생하고, 교체된 새 토큰도 폐기되어야 한다.")
+    void reuseDetectionTest() {
+        //given
+        String issued = refreshTokenService.issue("refresh-user");
+        String rotated = refreshTokenService.rotate(issued).getRefreshToken();
+
+        //when
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(issued));
+
+        //then
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(rotated));
+    }
+
+    @Test
+    @DisplayName("로그아웃으로 폐기된 토큰은 사용할 수 없어야 한다.")
+    void revokeTest() {
+        String issued = refreshTokenService.issue("refresh-user");
+
+        refreshTokenService.revokeAll("refresh-user");
+
+        assertThrows(InvalidRefreshTokenException.class, () -> refreshTokenService.rotate(issued));
+    }
+
+}